@@ -0,0 +1,102 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridRepository;
+import com.bezkoder.spring.data.mongodb.service.GuessEventBuffer;
+import com.bezkoder.spring.data.mongodb.service.GuessStatsService;
+import com.bezkoder.spring.data.mongodb.service.ItemService;
+import com.bezkoder.spring.data.mongodb.service.LeaderboardService;
+import com.bezkoder.spring.data.mongodb.service.PlayerSessions;
+import com.bezkoder.spring.data.mongodb.service.PuzzleCalendar;
+import com.bezkoder.spring.data.mongodb.service.PuzzleGenerator;
+import com.bezkoder.spring.data.mongodb.service.PuzzleMetrics;
+import com.bezkoder.spring.data.mongodb.service.SolutionGridCache;
+import com.bezkoder.spring.data.mongodb.service.SolutionGridService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// datos y servicios comunes de los benchmarks (el catálogo es el mismo que siembra DataLoader)
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static List<Item> catalog() {
+        return List.of(
+            new Item("surv12", "Surv12", "#20160e", "", 3, 1),
+            new Item("grizzly", "Grizzly", "#20160e", "", 2, 2),
+            new Item("bitcoin", "0.2 BTC", "#2b202d", "", 1, 1),
+            new Item("salewa", "Salewa", "#20160e", "", 1, 2),
+            new Item("docs", "Documents case", "#20160e", "", 1, 2),
+            new Item("m855A1", "M855A1", "#302f1e", "", 1, 1),
+            new Item("gpu", "GPU", "#132025", "", 2, 1),
+            new Item("cms", "CMS", "#20160e", "", 2, 1),
+            new Item("ibuprofen", "Ibuprofen", "#20160e", "", 1, 1),
+            new Item("dogtag", "Dogtag", "#132025", "", 1, 1)
+        );
+    }
+
+    // catálogo grande para contenedores grandes: items de 1x1 a 3x3
+    static List<Item> largeCatalog(int size) {
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new Item("item" + i, "Item " + i, "#000000", "", 1 + i % 3, 1 + (i / 3) % 3));
+        }
+        return items;
+    }
+
+    // un candidato, siempre puntuado y aceptado: se mide generar + contar una vez
+    static PuzzleGenerator generator(int width, int height) {
+        return new PuzzleGenerator(width, height, false, "bench", 1, Long.MAX_VALUE, 1_000_000, 50_000);
+    }
+
+    static ItemService itemService(List<Item> catalog) {
+        return new ItemService(new MemoryItemStore(InMemoryRepositories.items(catalog)), new ObjectMapper());
+    }
+
+    static SolutionGridService solutionGridService(SolutionGridRepository repository, ItemService itemService,
+                                                   PuzzleGenerator generator) {
+        SolutionGridCache cache = new SolutionGridCache();
+        return new SolutionGridService(new MemorySolutionGridStore(repository), itemService, cache,
+                new PuzzleCalendar(Clock.systemUTC()), generator, metrics(cache));
+    }
+
+    // sin escritor: cuando el buffer se llena los eventos se descartan (como con Mongo caído)
+    static GuessStatsService statsService(ItemService itemService, PuzzleCalendar calendar) {
+        GuessEventBuffer buffer = new GuessEventBuffer(100_000, 1.0, new SimpleMeterRegistry());
+        return new GuessStatsService(buffer, itemService, calendar, Clock.systemUTC(), 7);
+    }
+
+    static PlayerSessions playerSessions(PuzzleCalendar calendar) {
+        return new PlayerSessions(1 << 16, 0, false, calendar, new LeaderboardService(calendar, 100, 2),
+                new SimpleMeterRegistry());
+    }
+
+    static PuzzleMetrics metrics(SolutionGridCache cache) {
+        return new PuzzleMetrics(new SimpleMeterRegistry(), cache);
+    }
+
+    // guess que coloca exactamente la solución (todas las main cells)
+    static GuessRequest perfectGuess(SolutionGrid solution) {
+        List<GuessRequest.CellDTO> cells = new ArrayList<>();
+        for (String id : solution.getMainCells()) {
+            if (id == null) {
+                cells.add(null);
+                continue;
+            }
+            GuessRequest.CellDTO cell = new GuessRequest.CellDTO();
+            cell.setId(id);
+            cell.setIsMainCell(true);
+            cells.add(cell);
+        }
+        GuessRequest request = new GuessRequest();
+        request.setGrid(cells);
+        return request;
+    }
+}
@@ -0,0 +1,88 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridRepository;
+import com.bezkoder.spring.data.mongodb.service.ItemService;
+import com.bezkoder.spring.data.mongodb.service.PuzzleGenerator;
+import com.bezkoder.spring.data.mongodb.service.SolutionGridService;
+
+// generación de grids (con su puntuación) y reparación de documentos antiguos sin 'cells'
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationBenchmark {
+
+    private List<Item> catalog;
+    private List<Item> largeCatalog;
+    private PuzzleGenerator pouch;
+    private PuzzleGenerator largeCase;
+    private SolutionGridService service;
+    private SolutionGridRepository repository;
+    private LocalDate date;
+    private final LocalDate legacyDate = LocalDate.of(2020, 1, 1);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        catalog = Fixtures.catalog();
+        largeCatalog = Fixtures.largeCatalog(300);
+        pouch = Fixtures.generator(3, 3);
+        largeCase = Fixtures.generator(10, 10);
+
+        repository = InMemoryRepositories.solutionGrids();
+        ItemService itemService = Fixtures.itemService(catalog);
+        service = Fixtures.solutionGridService(repository, itemService, pouch);
+        date = LocalDate.of(2000, 1, 1);
+
+        // documento antiguo: sólo mainCells, sin cells ni tamaño
+        SolutionGrid legacy = new SolutionGrid(legacyDate.toString(),
+                Arrays.asList("surv12", null, null, "grizzly", null, "bitcoin", null, null, null), null);
+        repository.save(legacy);
+    }
+
+    @Benchmark
+    public SolutionGrid generatePouch() {
+        date = date.plusDays(1);
+        return pouch.generate(date.toString(), catalog);
+    }
+
+    // contenedor 10x10 con 300 items (usa las máscaras por fila)
+    @Benchmark
+    public SolutionGrid generateLargeCase() {
+        date = date.plusDays(1);
+        return largeCase.generate(date.toString(), largeCatalog);
+    }
+
+    // camino completo de un día nuevo: findByDate (fallo) + generar + insert en el repositorio en memoria
+    @Benchmark
+    public SolutionGrid findOrCreateNewDate() {
+        date = date.plusDays(1);
+        return service.findOrCreateForDate(date);
+    }
+
+    // fecha fuera de la cache: cada llamada lee el documento antiguo y reconstruye 'cells' en memoria
+    @Benchmark
+    public SolutionGrid populateLegacyCells() {
+        return service.findOrCreateForDate(legacyDate);
+    }
+}
@@ -0,0 +1,109 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bezkoder.spring.data.mongodb.controller.GuessController;
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse.CorrectCell;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.service.CompiledSolution;
+import com.bezkoder.spring.data.mongodb.service.GuessEvaluator;
+import com.bezkoder.spring.data.mongodb.service.GuessService;
+import com.bezkoder.spring.data.mongodb.service.ItemService;
+import com.bezkoder.spring.data.mongodb.service.PuzzleCalendar;
+import com.bezkoder.spring.data.mongodb.service.SolutionGridCache;
+import com.bezkoder.spring.data.mongodb.service.SolutionGridService;
+
+// evaluación de un guess: bucle original del controller vs solución compilada, y el controller completo
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuessBenchmark {
+
+    private SolutionGrid solution;
+    private CompiledSolution compiled;
+    private GuessRequest perfect;
+    private GuessController controller;
+
+    @Setup
+    public void setup() {
+        ItemService itemService = Fixtures.itemService(Fixtures.catalog());
+        SolutionGridService service = Fixtures.solutionGridService(InMemoryRepositories.solutionGrids(), itemService,
+                Fixtures.generator(3, 3));
+        PuzzleCalendar calendar = new PuzzleCalendar(Clock.systemUTC());
+        compiled = service.solutionForDate(calendar.today());
+        solution = compiled.getGrid();
+        perfect = Fixtures.perfectGuess(solution);
+        controller = new GuessController(service, calendar,
+                new GuessService(Fixtures.metrics(new SolutionGridCache()), Fixtures.statsService(itemService, calendar),
+                        Fixtures.playerSessions(calendar), false));
+    }
+
+    @Benchmark
+    public GuessResponse legacyLoop() {
+        return legacyEvaluate(solution, perfect);
+    }
+
+    @Benchmark
+    public GuessResponse compiledEvaluator() {
+        return GuessEvaluator.evaluate(compiled, perfect);
+    }
+
+    // incluye el lookup de la solución en la cache
+    @Benchmark
+    public Object controllerGuess() {
+        return controller.guess(perfect, null, null);
+    }
+
+    // copia de la lógica que tenía GuessController antes de la solución compilada (referencia)
+    static GuessResponse legacyEvaluate(SolutionGrid solution, GuessRequest request) {
+        List<CorrectCell> correctCells = new ArrayList<>();
+        List<String> solutionMain = solution.getMainCells();
+        List<String> solutionCells = solution.getCells();
+
+        int solutionItemsCount = 0;
+        for (String s : solutionMain) if (s != null) solutionItemsCount++;
+
+        for (int i = 0; i < 9; i++) {
+            GuessRequest.CellDTO cell = request.getGrid().get(i);
+            if (cell == null) continue;
+            String sentId = cell.getId();
+            Boolean isMain = cell.getIsMainCell();
+            if (isMain == null || !isMain) continue;
+
+            String solMainId = (solutionMain != null && solutionMain.size() > i) ? solutionMain.get(i) : null;
+            if (solMainId != null && Objects.equals(solMainId, sentId)) {
+                List<Integer> covered = new ArrayList<>();
+                if (solutionCells != null) {
+                    for (int j = 0; j < solutionCells.size(); j++) {
+                        if (Objects.equals(solutionCells.get(j), solMainId)) {
+                            covered.add(j);
+                        }
+                    }
+                }
+                correctCells.add(new CorrectCell(i, i / 3, i % 3, solMainId, covered));
+            }
+        }
+
+        return new GuessResponse(correctCells.size() == solutionItemsCount, correctCells);
+    }
+}
@@ -0,0 +1,130 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.ItemRepository;
+import com.bezkoder.spring.data.mongodb.repository.ReactiveSolutionGridRepository;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorios en memoria para medir los servicios sin Mongo. Sólo implementan los métodos
+ * que usan los servicios; el resto lanza UnsupportedOperationException.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {}
+
+    public static ItemRepository items(List<Item> initial) {
+        Map<String, Item> store = new ConcurrentHashMap<>();
+        for (Item item : initial) store.put(item.getId(), item);
+        return proxy(ItemRepository.class, store, Item::getId, Item::setId, null);
+    }
+
+    public static SolutionGridRepository solutionGrids() {
+        return proxy(SolutionGridRepository.class, new ConcurrentHashMap<>(), SolutionGrid::getId, SolutionGrid::setId,
+                SolutionGrid::getDate);
+    }
+
+    // vista reactiva (guess.pipeline=reactive) de un repositorio en memoria: sólo findByDate
+    public static ReactiveSolutionGridRepository reactiveSolutionGrids(SolutionGridRepository blocking) {
+        return reactiveSolutionGrids(blocking, () -> Duration.ZERO);
+    }
+
+    // ídem, y cada findByDate responde latency() más tarde (en el timer de Reactor: no ocupa ningún hilo mientras)
+    public static ReactiveSolutionGridRepository reactiveSolutionGrids(SolutionGridRepository blocking,
+                                                                       Supplier<Duration> latency) {
+        return (ReactiveSolutionGridRepository) Proxy.newProxyInstance(ReactiveSolutionGridRepository.class.getClassLoader(),
+                new Class<?>[]{ReactiveSolutionGridRepository.class}, (self, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByDate":
+                            Mono<SolutionGrid> read = Mono.defer(() -> Mono.justOrEmpty(blocking.findByDate((String) args[0])));
+                            return Mono.defer(() -> {
+                                Duration d = latency.get();
+                                return d.isZero() ? read : Mono.delay(d).then(read);
+                            });
+                        case "toString":
+                            return "InMemoryReactiveSolutionGridRepository";
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "equals":
+                            return self == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, T> R proxy(Class<R> type, Map<String, T> store, Function<T, String> getId,
+                                  BiConsumer<T, String> setId, Function<T, String> getDate) {
+        // índice por fecha para que findByDate no recorra todo el mapa
+        Map<String, String> dates = new ConcurrentHashMap<>();
+        Function<T, T> indexed = value -> {
+            if (getDate != null && getDate.apply(value) != null) dates.put(getDate.apply(value), getId.apply(value));
+            return value;
+        };
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "findByDate":
+                    return Optional.ofNullable(dates.get((String) args[0])).map(store::get);
+                case "findById":
+                    return Optional.ofNullable(store.get((String) args[0]));
+                case "existsById":
+                    return store.containsKey((String) args[0]);
+                case "findAll":
+                    return new ArrayList<>(store.values());
+                case "count":
+                    return (long) store.size();
+                case "save":
+                case "insert":
+                    if (args[0] instanceof Iterable) return saveAll((Iterable<T>) args[0], store, getId, setId, indexed);
+                    return indexed.apply(save((T) args[0], store, getId, setId));
+                case "saveAll":
+                    return saveAll((Iterable<T>) args[0], store, getId, setId, indexed);
+                case "deleteById":
+                    T removed = store.remove((String) args[0]);
+                    if (removed != null && getDate != null) dates.remove(getDate.apply(removed));
+                    return null;
+                case "deleteAll":
+                    store.clear();
+                    dates.clear();
+                    return null;
+                case "toString":
+                    return "InMemory" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static <T> T save(T value, Map<String, T> store, Function<T, String> getId, BiConsumer<T, String> setId) {
+        if (getId.apply(value) == null) setId.accept(value, UUID.randomUUID().toString());
+        store.put(getId.apply(value), value);
+        return value;
+    }
+
+    private static <T> List<T> saveAll(Iterable<T> values, Map<String, T> store, Function<T, String> getId,
+                                       BiConsumer<T, String> setId, Function<T, T> indexed) {
+        List<T> saved = new ArrayList<>();
+        for (T value : values) saved.add(indexed.apply(save(value, store, getId, setId)));
+        return saved;
+    }
+}
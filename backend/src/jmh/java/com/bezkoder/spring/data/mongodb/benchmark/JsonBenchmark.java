@@ -0,0 +1,61 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
+import com.bezkoder.spring.data.mongodb.service.CompiledSolution;
+import com.bezkoder.spring.data.mongodb.service.GuessEvaluator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+// (de)serialización Jackson de los DTOs del endpoint de guess
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] requestJson;
+    private GuessResponse response;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        requestReader = mapper.readerFor(GuessRequest.class);
+        responseWriter = mapper.writerFor(GuessResponse.class);
+
+        CompiledSolution solution = CompiledSolution.compile(
+                Fixtures.generator(3, 3).generate(LocalDate.of(2025, 1, 1).toString(), Fixtures.catalog()));
+        GuessRequest request = Fixtures.perfectGuess(solution.getGrid());
+        requestJson = mapper.writeValueAsBytes(request);
+        response = GuessEvaluator.evaluate(solution, request);
+    }
+
+    @Benchmark
+    public GuessRequest readRequest() throws Exception {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws Exception {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
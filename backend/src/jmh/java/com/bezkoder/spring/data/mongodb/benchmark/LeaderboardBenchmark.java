@@ -0,0 +1,63 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bezkoder.spring.data.mongodb.service.DailyLeaderboard;
+
+// clasificación de un día ya cargado con muchos jugadores: resoluciones concurrentes, puesto y top
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LeaderboardBenchmark {
+
+    @Param({"1000000"})
+    private int solvers;
+
+    private DailyLeaderboard board;
+    private final AtomicLong players = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        board = new DailyLeaderboard("2025-01-01", 100);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < solvers; i++) {
+            board.submit(players.incrementAndGet(), 1 + random.nextInt(12), random.nextInt(86_400));
+        }
+    }
+
+    @Benchmark
+    public void submit() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        board.submit(players.incrementAndGet(), 1 + random.nextInt(12), random.nextInt(86_400));
+    }
+
+    @Benchmark
+    public long rank() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return board.rank(1 + random.nextInt(12), random.nextInt(86_400));
+    }
+
+    @Benchmark
+    public int top10() {
+        return board.top(10).size();
+    }
+}
@@ -0,0 +1,27 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.repository.ItemRepository;
+import com.bezkoder.spring.data.mongodb.repository.ItemStore;
+
+// ItemStore sobre un repositorio en memoria (InMemoryRepositories.items); la versión del catálogo también en memoria
+public final class MemoryItemStore implements ItemStore {
+
+    private final ItemRepository repository;
+    private final AtomicInteger version = new AtomicInteger();
+
+    public MemoryItemStore(ItemRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override public List<Item> findAll() { return repository.findAll(); }
+    @Override public long count() { return repository.count(); }
+    @Override public Item save(Item item) { return repository.save(item); }
+    @Override public List<Item> saveAll(List<Item> items) { return repository.saveAll(items); }
+    @Override public void deleteById(String id) { repository.deleteById(id); }
+    @Override public int seededVersion() { return version.get(); }
+    @Override public void markSeeded(int version) { this.version.set(version); }
+}
@@ -0,0 +1,60 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridRepository;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridStore;
+
+// SolutionGridStore sobre un repositorio en memoria: sin índice único, el duplicado se comprueba antes de insertar
+// (basta con el single-flight de SolutionGridService)
+public final class MemorySolutionGridStore implements SolutionGridStore {
+
+    private final SolutionGridRepository repository;
+
+    public MemorySolutionGridStore(SolutionGridRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Optional<SolutionGrid> findByDate(String date) {
+        return repository.findByDate(date);
+    }
+
+    @Override
+    public synchronized SolutionGrid insert(SolutionGrid grid) {
+        if (repository.findByDate(grid.getDate()).isPresent()) {
+            throw new DuplicateKeyException("solution_grids.date " + grid.getDate());
+        }
+        return repository.insert(grid);
+    }
+
+    @Override
+    public int insertAll(List<SolutionGrid> grids) {
+        int inserted = 0;
+        for (SolutionGrid grid : grids) {
+            try {
+                insert(grid);
+                inserted++;
+            } catch (DuplicateKeyException e) {
+                // como en Mongo: el resto sí entra
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public Set<String> datesBetween(String from, String to) {
+        Set<String> dates = new TreeSet<>();
+        for (SolutionGrid grid : repository.findAll()) {
+            String date = grid.getDate();
+            if (date != null && date.compareTo(from) >= 0 && date.compareTo(to) <= 0) dates.add(date);
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.service.ItemSearchIndex;
+
+// búsqueda del selector de items sobre catálogos grandes (nombres tipo "Item 1234 kit")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000"})
+    private int catalogSize;
+
+    private ItemSearchIndex index;
+    private String secondPage;
+
+    @Setup
+    public void setup() {
+        String[] words = {"kit", "case", "ammo", "medical", "card", "key", "rifle", "scope"};
+        List<Item> items = new ArrayList<>();
+        for (Item item : Fixtures.largeCatalog(catalogSize)) {
+            int i = items.size();
+            item.setName(item.getName() + " " + words[i % words.length] + " " + words[(i / 8) % words.length]);
+            items.add(item);
+        }
+        index = new ItemSearchIndex();
+        index.replaceAll(items);
+        secondPage = index.search(null, null, null, null, null, 50).getNextCursor();
+    }
+
+    @Benchmark
+    public ItemSearchIndex.Page substring() {
+        return index.search("medical ca", null, null, null, null, 50);
+    }
+
+    @Benchmark
+    public ItemSearchIndex.Page prefixWithFilter() {
+        return index.search("k", 1, 2, null, null, 50);
+    }
+
+    @Benchmark
+    public ItemSearchIndex.Page catalogPage() {
+        return index.search(null, null, null, null, secondPage, 50);
+    }
+
+    @Benchmark
+    public void updateItem() {
+        index.put(new Item("item7", "Item 7 rifle scope", "#000000", "", 2, 1));
+    }
+}
@@ -0,0 +1,129 @@
+package com.bezkoder.spring.data.mongodb.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tiempo hasta el primer guess de un pod nuevo: desde lanzar la JVM hasta que POST /api/guess contesta 200.
+ * Cada invocación es un proceso nuevo con el jar del perfil Maven 'cds':
+ *   jar: sin nada más; cds: con el archivo de clases y el contexto AOT.
+ * Antes: mvn -Pcds package -DskipTests -Dcds.profiles=embedded (sin Mongo; el almacén es un directorio temporal
+ * que siembra la iteración de calentamiento, como un pod que se une a un cluster ya en marcha).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    // 3x3 (puzzle.grid por defecto) vacío: basta con que tenga el tamaño de la solución
+    private static final String EMPTY_GUESS = "{\"grid\":[" + String.join(",", Collections.nCopies(9, "null")) + "]}";
+
+    @Param({"jar", "cds"})
+    private String mode;
+
+    @Param({"target/cds"})
+    private String cdsDir;
+
+    private Path dir;
+    private Path store;
+    private Process process;
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Path.of(cdsDir).toAbsolutePath();
+        if (!Files.exists(dir.resolve("app.jsa"))) {
+            throw new IllegalStateException("Missing " + dir.resolve("app.jsa") + ": run mvn -Pcds package first");
+        }
+        store = Files.createTempDirectory("startup-bench");
+    }
+
+    @Benchmark
+    public int firstGuess() throws Exception {
+        int port = freePort();
+        process = new ProcessBuilder(command(port))
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest guess = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/guess"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(EMPTY_GUESS))
+                .build();
+        while (process.isAlive()) {
+            try {
+                HttpResponse<Void> response = http.send(guess, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return response.statusCode();
+            } catch (ConnectException e) {
+                // todavía no escucha
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application exited with " + process.exitValue());
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() throws InterruptedException {
+        if (process == null) return;
+        process.destroy();
+        process.waitFor(30, TimeUnit.SECONDS);
+    }
+
+    private List<String> command(int port) throws IOException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("cds")) {
+            cmd.add("-XX:SharedArchiveFile=app.jsa");
+            cmd.add("-Dspring.aot.enabled=true");
+        }
+        cmd.add("-jar");
+        cmd.add(jar().getFileName().toString());
+        cmd.add("--spring.profiles.active=embedded");
+        cmd.add("--server.port=" + port);
+        cmd.add("--storage.embedded.dir=" + store);
+        cmd.add("--icons.cache-dir=" + store.resolve("icons"));
+        return cmd;
+    }
+
+    private Path jar() throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith("-cds.jar")).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No -cds.jar in " + dir));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
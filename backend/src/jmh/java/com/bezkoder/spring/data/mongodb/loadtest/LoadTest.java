@@ -0,0 +1,666 @@
+package com.bezkoder.spring.data.mongodb.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bezkoder.spring.data.mongodb.SpringBootDataMongodbApplication;
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.service.ItemCatalog;
+import com.bezkoder.spring.data.mongodb.service.ItemService;
+import com.bezkoder.spring.data.mongodb.service.PlayerSessions;
+import com.bezkoder.spring.data.mongodb.service.PuzzleCalendar;
+import com.bezkoder.spring.data.mongodb.service.SolutionGridCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Prueba de carga en proceso: arranca la aplicación entera sin Mongo (LoadTestBeans) y la ataca por HTTP
+ * con muchos clientes a la vez, con el reloj colocado para que la medianoche de Madrid caiga a mitad de la prueba.
+ *
+ * Cada cliente es un hilo de plataforma (Java 17: sin hilos virtuales) que va turnando sus jugadores (token y zona propios). Un jugador, al empezar su día,
+ * pide /api/items (con ETag si ya lo tenía) y después manda guesses cada vez más parecidos a la solución hasta
+ * acertarla; de vez en cuando recarga la página y algún guess llega mal formado. Al pasar la medianoche todos
+ * los de Madrid empiezan a la vez: es el pico de primeros intentos de cada día.
+ *
+ * Fases: warmup (no se mide), before, burst (los primeros segundos del día nuevo) y after. Por fase y endpoint:
+ * percentiles de latencia, peticiones por segundo y códigos de respuesta; y lo que ha asignado la aplicación
+ * (hilos que no son de los clientes, vía ThreadMXBean) por petición, con las recolecciones del GC.
+ * Es un bucle cerrado: la latencia no incluye la espera de las peticiones que no se llegaron a mandar.
+ *
+ * El "Mongo" de las soluciones puede ir lento (StoreLatency): store-delay (ms en cada llamada), store-stall (ms de más)
+ * y store-stall-chance (probabilidad de ese parón). Con cold=true la aplicación no precalienta la cache (se vacía al
+ * empezar la medición y el prewarm no vuelve a pasar), así que las primeras lecturas de cada día van al store lento;
+ * con invalidate=ms además se vacía cada ese tiempo, como si alguien editase las soluciones. Es lo que distingue
+ * a los dos pipelines: el bloqueante espera al store con el hilo del servlet, el reactivo lo suelta.
+ * Los clientes conocen las soluciones leyendo el repositorio directamente (sin latencia ni cache de la aplicación).
+ *
+ * rollover=cold (implica cold=true) quita además del store los días a partir de la medianoche: el día nuevo
+ * empieza sin grid en ningún sitio y lo genera la primera petición, con el store lento. Aparte se informa de los
+ * guesses del día nuevo durante burst (la fila "rollover"); con rollover-p99=ms la prueba falla (código de salida 1)
+ * si su p99 lo supera. Por defecto sin zonas por delante de Madrid (ya estarían jugando el día nuevo antes de
+ * medianoche) y con 20 jugadores por cliente.
+ *
+ * Opciones (nombre=valor): pipelines, clients, players, warmup, before, burst, after (segundos), zones
+ * (zona:peso,...), reload y malformed (probabilidades), store-delay, store-stall, store-stall-chance, cold,
+ * invalidate, rollover (warm o cold) y rollover-p99. Con dos pipelines se arrancan uno detrás de otro en la misma JVM (al final, una tabla comparándolos);
+ * para compararlos sin el JIT del primero, uno por ejecución. P.ej.:
+ *   pipelines=blocking,reactive clients=256 cold=true store-delay=20 store-stall=1000 store-stall-chance=0.01 invalidate=2000
+ *   rollover=cold store-delay=50 store-stall=2000 store-stall-chance=0.05 rollover-p99=3000
+ * Las tareas @Scheduled con cron siguen el reloj del sistema, no el desplazado: la medianoche simulada no las dispara.
+ */
+public final class LoadTest {
+
+    private enum Phase { WARMUP, BEFORE, BURST, AFTER }
+    private static final Phase[] MEASURED = {Phase.BEFORE, Phase.BURST, Phase.AFTER};
+
+    private static final String[] ENDPOINTS = {"guess", "items"};
+    private static final int GUESS = 0;
+    private static final int ITEMS = 1;
+    // códigos que se cuentan aparte; el resto va a "other" y los fallos de conexión a "error"
+    private static final int[] STATUSES = {200, 304, 400, 429, 503};
+    private static final int OTHER = STATUSES.length;
+    private static final int ERROR = STATUSES.length + 1;
+
+    private final Map<String, String> options;
+    private final String pipeline;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LoadTestBeans.ShiftingClock clock = new LoadTestBeans.ShiftingClock();
+    private final LoadTestBeans beans;
+    private final boolean coldRollover;
+    private final boolean cold;
+
+    private volatile Phase phase = Phase.WARMUP;
+    private boolean failed;
+    private volatile boolean running = true;
+
+    private List<String> itemIds;
+    // el día de Madrid que empieza a medianoche
+    private LocalDate newDay;
+    // mainCells de la solución de cada día, tal y como la conocería un jugador que ya la ha visto
+    private final Map<LocalDate, List<String>> solutionCells = new ConcurrentHashMap<>();
+
+    private LoadTest(Map<String, String> options, String pipeline) {
+        this.options = options;
+        this.pipeline = pipeline;
+        this.coldRollover = option(options, "rollover", "warm").equals("cold");
+        this.cold = coldRollover || Boolean.parseBoolean(option(options, "cold", "false"));
+        this.beans = new LoadTestBeans(clock, new StoreLatency(Duration.ofMillis(intOption("store-delay", 0)),
+                Duration.ofMillis(intOption("store-stall", 0)), doubleOption("store-stall-chance", 0)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.contains("=")) throw new IllegalArgumentException("Expected name=value: " + arg);
+            options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        List<String> summaries = new ArrayList<>();
+        boolean failed = false;
+        for (String pipeline : option(options, "pipelines", "blocking,reactive").split(",")) {
+            LoadTest test = new LoadTest(options, pipeline.trim());
+            summaries.add(test.run());
+            failed |= test.failed;
+        }
+        if (summaries.size() > 1) {
+            System.out.printf("%n== guesses over before+burst+after%n");
+            System.out.println(SUMMARY_HEADER);
+            summaries.forEach(System.out::println);
+        }
+        if (failed) System.exit(1);
+    }
+
+    private static final String SUMMARY_HEADER = String.format("%-9s %9s %9s %8s %8s %8s %8s  %s",
+            "pipeline", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "responses");
+
+    // devuelve la línea de resumen de los guesses para comparar pipelines
+    private String run() throws Exception {
+        int clients = intOption("clients", 64);
+        // a medianoche cada jugador vuelve a pedir los items antes de su primer guess del día: con rollover=cold,
+        // menos jugadores por cliente para que esos guesses caigan dentro de burst
+        int players = intOption("players", coldRollover ? 20 * clients : 100_000);
+        Duration warmup = Duration.ofSeconds(intOption("warmup", 10));
+        Duration before = Duration.ofSeconds(intOption("before", 20));
+        Duration burst = Duration.ofSeconds(intOption("burst", 10));
+        Duration after = Duration.ofSeconds(intOption("after", 20));
+
+        // el día simulado arranca un rato antes de la medianoche: el prewarm del arranque ya carga hoy y mañana
+        newDay = ZonedDateTime.now(PuzzleCalendar.ZONE).toLocalDate().plusDays(1);
+        Instant midnight = newDay.atStartOfDay(PuzzleCalendar.ZONE).toInstant();
+        clock.jumpTo(midnight.minus(warmup.plus(before)).minus(Duration.ofMinutes(10)));
+
+        ConfigurableApplicationContext context = start();
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            SolutionGridCache cache = context.getBean(SolutionGridCache.class);
+            if (coldRollover) forgetFrom(newDay, cache);
+            ItemCatalog catalog = context.getBean(ItemService.class).catalog();
+            itemIds = catalog.getItems().stream().map(Item::getId).toList();
+
+            // HttpURLConnection: bloqueante en el hilo del cliente (sin saltos entre hilos que roben CPU a la aplicación);
+            // una conexión keep-alive por cliente
+            System.setProperty("http.maxConnections", Integer.toString(clients));
+            URL base = new URL("http://localhost:" + port);
+            clock.jumpTo(midnight.minus(warmup.plus(before)));
+            List<Client> all = new ArrayList<>();
+            List<Player> population = players(players, catalog.getEtag());
+            for (int i = 0; i < clients; i++) {
+                all.add(new Client(base, population.subList(i * players / clients, (i + 1) * players / clients),
+                        new SplittableRandom(i)));
+            }
+
+            long t0 = System.nanoTime();
+            List<Thread> threads = new ArrayList<>();
+            AtomicInteger ids = new AtomicInteger();
+            for (Client client : all) {
+                Thread t = new Thread(client, "loadtest-client-" + ids.incrementAndGet());
+                t.start();
+                threads.add(t);
+            }
+
+            Map<Phase, Usage> usage = new LinkedHashMap<>();
+            Usage start = sleepUntil(t0, warmup, Phase.BEFORE);
+            // en frío: la medición empieza sin nada en memoria (lo del warmup no cuenta)
+            if (cold) cache.clear();
+            Thread invalidator = invalidator(cache, intOption("invalidate", 0));
+            Usage atMidnight = sleepUntil(t0, warmup.plus(before), Phase.BURST);
+            usage.put(Phase.BEFORE, atMidnight.minus(start));
+            Usage afterBurst = sleepUntil(t0, warmup.plus(before).plus(burst), Phase.AFTER);
+            usage.put(Phase.BURST, afterBurst.minus(atMidnight));
+            Usage end = sleepUntil(t0, warmup.plus(before).plus(burst).plus(after), Phase.AFTER);
+            usage.put(Phase.AFTER, end.minus(afterBurst));
+
+            running = false;
+            for (Thread t : threads) t.join();
+            if (invalidator != null) invalidator.join();
+
+            return report(clients, players, midnight, all, usage, Map.of(Phase.BEFORE, before, Phase.BURST, burst, Phase.AFTER, after));
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start() throws Exception {
+        Path dir = Files.createTempDirectory("loadtest");
+        // el perfil embedded quita la autoconfiguración de Mongo; memory no coincide con ningún store: los pone LoadTestBeans
+        return new SpringApplicationBuilder(SpringBootDataMongodbApplication.class)
+                .initializers(beans)
+                .run("--spring.profiles.active=embedded",
+                        "--storage.backend=memory",
+                        "--guess.pipeline=" + pipeline,
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--icons.cache-dir=" + dir.resolve("icons"),
+                        // el atlas descarga iconos por HTTP: fuera de la medición
+                        "--icons.atlas.initial-delay-ms=86400000",
+                        // en frío el prewarm sólo pasa al arrancar (y esa cache se vacía al empezar a medir)
+                        "--solution.cache.prewarm-ms=" + (cold ? 86400000 : 60000));
+    }
+
+    // lo que el arranque ya generó (pregeneración) o cargó (prewarm) del día nuevo en adelante
+    private void forgetFrom(LocalDate day, SolutionGridCache cache) {
+        for (SolutionGrid grid : beans.grids().findAll()) {
+            if (grid.getDate().compareTo(day.toString()) >= 0) beans.grids().deleteById(grid.getId());
+        }
+        cache.clear();
+    }
+
+    // vacía la cache de soluciones cada everyMs mientras dura la prueba (0: nunca)
+    private Thread invalidator(SolutionGridCache cache, int everyMs) {
+        if (everyMs <= 0) return null;
+        Thread t = new Thread(() -> {
+            while (running) {
+                try {
+                    Thread.sleep(everyMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                cache.clear();
+            }
+        }, "loadtest-invalidator");
+        t.start();
+        return t;
+    }
+
+    // el día ya va avanzado cuando empieza la prueba: todos han cargado la página (tienen el ETag) y algunos ya han acertado
+    private List<Player> players(int count, String etag) {
+        List<String[]> zones = new ArrayList<>();
+        int total = 0;
+        String fallback = coldRollover ? "Europe/Madrid:80,Europe/London:10,America/New_York:10"
+                : "Europe/Madrid:70,Europe/London:10,America/New_York:10,Asia/Tokyo:10";
+        for (String entry : option(options, "zones", fallback).split(",")) {
+            String[] parts = entry.split(":");
+            total += Integer.parseInt(parts[1]);
+            zones.add(new String[]{parts[0], Integer.toString(total)});
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int pick = random.nextInt(total);
+            String zone = zones.stream().filter(z -> pick < Integer.parseInt(z[1])).findFirst().orElseThrow()[0];
+            // intentos que necesita para acertar: de 2 a 10
+            Player player = new Player(UUID.randomUUID().toString(), zone, 2 + random.nextInt(9));
+            player.day = LocalDate.now(clock.withZone(player.zone));
+            player.etag = etag;
+            player.solved = random.nextDouble() < 0.3;
+            players.add(player);
+        }
+        return players;
+    }
+
+    // --- clientes ---
+
+    private static final class Player {
+        final String token;
+        final String zoneId;
+        final ZoneId zone;
+        final int skill;
+        LocalDate day;
+        int attempts;
+        boolean solved;
+        String etag;
+
+        Player(String token, String zoneId, int skill) {
+            this.token = token;
+            this.zoneId = zoneId;
+            this.zone = ZoneId.of(zoneId);
+            this.skill = skill;
+        }
+    }
+
+    private final class Client implements Runnable {
+        private final URL guessUrl;
+        private final URL itemsUrl;
+        private final List<Player> players;
+        private final SplittableRandom random;
+        private final double reload = doubleOption("reload", 0.02);
+        private final double malformed = doubleOption("malformed", 0.005);
+
+        // [fase][endpoint]
+        final Latencies[][] latencies = new Latencies[Phase.values().length][ENDPOINTS.length];
+        final long[][][] statuses = new long[Phase.values().length][ENDPOINTS.length][STATUSES.length + 2];
+        final long[] solves = new long[Phase.values().length];
+        // guesses del día nuevo durante burst
+        final Latencies rollover = new Latencies();
+        final long[] rolloverStatuses = new long[STATUSES.length + 2];
+
+        Client(URL base, List<Player> players, SplittableRandom random) throws IOException {
+            this.guessUrl = new URL(base, "/api/guess");
+            this.itemsUrl = new URL(base, "/api/items");
+            this.players = players;
+            this.random = random;
+            for (Latencies[] row : latencies) for (int e = 0; e < row.length; e++) row[e] = new Latencies();
+        }
+
+        @Override
+        public void run() {
+            int next = 0;
+            int idle = 0;
+            while (running) {
+                Player p = players.get(next++ % players.size());
+                LocalDate today = LocalDate.now(clock.withZone(p.zone));
+                if (!today.equals(p.day)) {
+                    p.day = today;
+                    p.attempts = 0;
+                    p.solved = false;
+                    idle = 0;
+                    fetchItems(p);
+                } else if (p.solved) {
+                    // todos los de este cliente han terminado su día: a esperar al siguiente
+                    if (++idle >= players.size()) {
+                        pause();
+                        idle = 0;
+                    }
+                } else {
+                    idle = 0;
+                    if (random.nextDouble() < reload) fetchItems(p);
+                    else guess(p, today);
+                }
+            }
+        }
+
+        private void fetchItems(Player p) {
+            Reply reply = send(ITEMS, itemsUrl, p, null);
+            if (reply != null && reply.status == 200) p.etag = reply.etag;
+        }
+
+        private void guess(Player p, LocalDate today) {
+            byte[] body;
+            try {
+                body = mapper.writeValueAsBytes(guessFor(p, today));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            Phase at = phase;
+            Reply reply = send(GUESS, guessUrl, p, body);
+            if (reply == null) return;
+            if (reply.status == 200) {
+                p.attempts++;
+                if (new String(reply.body).contains("\"correct\":true")) {
+                    p.solved = true;
+                    solves[at.ordinal()]++;
+                }
+            } else if (reply.status == 429) {
+                p.solved = true;
+            }
+        }
+
+        /**
+         * Cada intento acierta más piezas: en el intento k de un jugador que necesita skill, cada item de la
+         * solución está en su sitio con probabilidad k/skill; los huecos que quedan llevan a veces un item cualquiera.
+         */
+        private GuessRequest guessFor(Player p, LocalDate today) {
+            List<String> solution = solutionCells.get(today);
+            if (solution == null) {
+                // el día aún no está generado: a ciegas con otro día del mismo tamaño (el guess es el que hace que se genere)
+                solution = beans.grids().findByDate(today.toString()).map(SolutionGrid::getMainCells).orElse(null);
+                if (solution != null) solutionCells.put(today, solution);
+                else solution = solutionCells.values().stream().findAny().orElse(List.of());
+            }
+            int size = random.nextDouble() < malformed ? solution.size() + 1 : solution.size();
+            double right = Math.min(1.0, (p.attempts + 1) / (double) p.skill);
+            List<GuessRequest.CellDTO> grid = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String id = i < solution.size() ? solution.get(i) : null;
+                if (id != null && random.nextDouble() < right) grid.add(cell(id));
+                else if (random.nextDouble() < 0.3) grid.add(cell(itemIds.get(random.nextInt(itemIds.size()))));
+                else grid.add(null);
+            }
+            GuessRequest request = new GuessRequest();
+            request.setGrid(grid);
+            return request;
+        }
+
+        // body == null: GET condicional de /api/items; si no, POST del guess con el token y la zona del jugador
+        private Reply send(int endpoint, URL url, Player p, byte[] body) {
+            Phase at = phase;
+            long start = System.nanoTime();
+            Reply reply = null;
+            try {
+                reply = exchange(url, p, body);
+            } catch (IOException e) {
+                // conexión rechazada o cortada: cuenta como error
+            }
+            long elapsed = System.nanoTime() - start;
+            int status = reply == null ? ERROR : statusIndex(reply.status);
+            latencies[at.ordinal()][endpoint].add(elapsed);
+            statuses[at.ordinal()][endpoint][status]++;
+            if (endpoint == GUESS && at == Phase.BURST && newDay.equals(p.day)) {
+                rollover.add(elapsed);
+                rolloverStatuses[status]++;
+            }
+            return reply;
+        }
+
+        private Reply exchange(URL url, Player p, byte[] body) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            if (body == null) {
+                if (p.etag != null) connection.setRequestProperty("If-None-Match", p.etag);
+            } else {
+                connection.setRequestMethod("POST");
+                // sin modo streaming: cabeceras y cuerpo salen en la misma escritura (si no, Nagle + el ACK retrasado
+                // del servidor añaden ~40 ms a cada POST y se mediría el cliente, no la aplicación)
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                connection.setRequestProperty(PlayerSessions.HEADER, p.token);
+                connection.setRequestProperty(PuzzleCalendar.HEADER, p.zoneId);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+            int status = connection.getResponseCode();
+            // leer la respuesta entera deja la conexión lista para la siguiente petición
+            InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            byte[] content = new byte[0];
+            if (in != null) {
+                try (in) {
+                    content = in.readAllBytes();
+                }
+            }
+            return new Reply(status, content, connection.getHeaderField("ETag"));
+        }
+    }
+
+    private static final class Reply {
+        final int status;
+        final byte[] body;
+        final String etag;
+
+        Reply(int status, byte[] body, String etag) {
+            this.status = status;
+            this.body = body;
+            this.etag = etag;
+        }
+    }
+
+    private static GuessRequest.CellDTO cell(String id) {
+        GuessRequest.CellDTO cell = new GuessRequest.CellDTO();
+        cell.setId(id);
+        cell.setIsMainCell(true);
+        return cell;
+    }
+
+    private static int statusIndex(int status) {
+        for (int i = 0; i < STATUSES.length; i++) if (STATUSES[i] == status) return i;
+        return OTHER;
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // latencias en ns de un cliente, fase y endpoint (sólo las escribe su hilo)
+    private static final class Latencies {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long nanos) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+        }
+    }
+
+    // --- medición de la aplicación ---
+
+    // bytes asignados por hilo (sin los de los clientes) y recolecciones del GC en un instante
+    private static final class Usage {
+        final Map<Long, Long> allocated;
+        final long gcCount;
+        final long gcMillis;
+
+        Usage(Map<Long, Long> allocated, long gcCount, long gcMillis) {
+            this.allocated = allocated;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+
+        static Usage now() {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long[] ids = threads.getAllThreadIds();
+            ThreadInfo[] infos = threads.getThreadInfo(ids, 0);
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            Map<Long, Long> allocated = new HashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                if (infos[i] == null || bytes[i] < 0) continue;
+                String name = infos[i].getThreadName();
+                // el temporizador de keep-alive del JDK también es de la prueba, no de la aplicación
+                if (name.startsWith("loadtest-") || name.equals("Keep-Alive-Timer")) continue;
+                allocated.put(ids[i], bytes[i]);
+            }
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return new Usage(allocated, count, millis);
+        }
+
+        // los hilos que terminan entre dos mediciones no cuentan (los de Tomcat y los schedulers viven toda la prueba)
+        Usage minus(Usage earlier) {
+            long bytes = 0;
+            for (Map.Entry<Long, Long> e : allocated.entrySet()) {
+                bytes += e.getValue() - earlier.allocated.getOrDefault(e.getKey(), 0L);
+            }
+            return new Usage(Map.of(-1L, bytes), gcCount - earlier.gcCount, gcMillis - earlier.gcMillis);
+        }
+
+        long bytes() {
+            return allocated.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private Usage sleepUntil(long t0, Duration at, Phase next) throws InterruptedException {
+        long wait;
+        while ((wait = t0 + at.toNanos() - System.nanoTime()) > 0) {
+            Thread.sleep(Math.max(1, wait / 1_000_000));
+        }
+        Usage usage = Usage.now();
+        phase = next;
+        return usage;
+    }
+
+    // --- informe ---
+
+    private String report(int clients, int players, Instant midnight, List<Client> all, Map<Phase, Usage> usage,
+                          Map<Phase, Duration> durations) {
+        System.out.printf("%n== guess.pipeline=%s: %d clients, %d players, midnight %s at the start of burst%n",
+                pipeline, clients, players, midnight.atZone(PuzzleCalendar.ZONE).toLocalDateTime() + " " + PuzzleCalendar.ZONE);
+        System.out.printf("store: %s; cache: %s%n", beans.latency(),
+                cold ? "cold" + (intOption("invalidate", 0) > 0 ? ", cleared every " + intOption("invalidate", 0) + " ms" : "") : "prewarmed");
+        System.out.printf("%-7s %-6s %9s %9s %8s %8s %8s %8s %8s  %s%n",
+                "phase", "path", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "responses");
+        for (Phase p : MEASURED) {
+            double seconds = durations.get(p).toMillis() / 1000.0;
+            for (int e = 0; e < ENDPOINTS.length; e++) {
+                long[] merged = merge(all, p, e);
+                long[] counts = new long[STATUSES.length + 2];
+                for (Client c : all) for (int s = 0; s < counts.length; s++) counts[s] += c.statuses[p.ordinal()][e][s];
+                System.out.printf("%-7s %-6s %9d %9.0f %8.2f %8.2f %8.2f %8.2f %8.2f  %s%n",
+                        p.name().toLowerCase(), ENDPOINTS[e], merged.length, merged.length / seconds,
+                        percentile(merged, 0.50), percentile(merged, 0.90), percentile(merged, 0.99),
+                        percentile(merged, 0.999), percentile(merged, 1.0),
+                        responses(counts, e == GUESS ? all.stream().mapToLong(c -> c.solves[p.ordinal()]).sum() : -1));
+            }
+        }
+        // el cambio de día: guesses de quien ya está en el día nuevo mientras dura burst
+        long[] rolled = merge(all.stream().map(c -> c.rollover).toList());
+        long[] rolledCounts = new long[STATUSES.length + 2];
+        for (Client c : all) for (int s = 0; s < rolledCounts.length; s++) rolledCounts[s] += c.rolloverStatuses[s];
+        double rolledP99 = percentile(rolled, 0.99);
+        System.out.printf("%-7s %-6s %9d %9.0f %8.2f %8.2f %8.2f %8.2f %8.2f  %s%n", "rollover", "guess", rolled.length,
+                rolled.length / (durations.get(Phase.BURST).toMillis() / 1000.0), percentile(rolled, 0.50),
+                percentile(rolled, 0.90), rolledP99, percentile(rolled, 0.999), percentile(rolled, 1.0),
+                responses(rolledCounts, -1) + (coldRollover ? " (" + newDay + " not in the store at midnight)" : ""));
+        String limit = option(options, "rollover-p99", "");
+        if (!limit.isEmpty()) {
+            failed = rolled.length == 0 || rolledP99 > Double.parseDouble(limit);
+            System.out.printf("rollover p99 %.2f ms, limit %s ms: %s%n", rolledP99, limit,
+                    rolled.length == 0 ? "FAIL (no guesses for " + newDay + ")" : failed ? "FAIL" : "ok");
+        }
+        System.out.printf("%-7s %14s %12s %8s %8s%n", "phase", "app alloc MB", "bytes/req", "gc", "gc ms");
+        for (Phase p : MEASURED) {
+            Usage u = usage.get(p);
+            long requests = merge(all, p, GUESS).length + merge(all, p, ITEMS).length;
+            System.out.printf("%-7s %14.1f %12d %8d %8d%n", p.name().toLowerCase(), u.bytes() / 1048576.0,
+                    requests == 0 ? 0 : u.bytes() / requests, u.gcCount, u.gcMillis);
+        }
+
+        // los guesses de las tres fases juntos, para la tabla que compara los pipelines
+        List<long[]> phases = new ArrayList<>();
+        long[] counts = new long[STATUSES.length + 2];
+        long seconds = 0;
+        for (Phase p : MEASURED) {
+            phases.add(merge(all, p, GUESS));
+            for (Client c : all) for (int s = 0; s < counts.length; s++) counts[s] += c.statuses[p.ordinal()][GUESS][s];
+            seconds += durations.get(p).toSeconds();
+        }
+        long[] guesses = phases.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        String summary = String.format("%-9s %9d %9.0f %8.2f %8.2f %8.2f %8.2f  %s", pipeline, guesses.length,
+                guesses.length / (double) Math.max(1, seconds), percentile(guesses, 0.50), percentile(guesses, 0.99),
+                percentile(guesses, 0.999), percentile(guesses, 1.0), responses(counts, -1));
+        System.out.println(SUMMARY_HEADER);
+        System.out.println(summary);
+        return summary;
+    }
+
+    private static long[] merge(List<Client> all, Phase p, int endpoint) {
+        return merge(all.stream().map(c -> c.latencies[p.ordinal()][endpoint]).toList());
+    }
+
+    private static long[] merge(List<Latencies> all) {
+        int size = 0;
+        for (Latencies l : all) size += l.size;
+        long[] merged = new long[size];
+        int at = 0;
+        for (Latencies l : all) {
+            System.arraycopy(l.values, 0, merged, at, l.size);
+            at += l.size;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    // en ms; merged ya viene ordenado
+    private static double percentile(long[] merged, double q) {
+        if (merged.length == 0) return 0;
+        int index = (int) Math.ceil(q * merged.length) - 1;
+        return merged[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static String responses(long[] counts, long solves) {
+        StringBuilder out = new StringBuilder();
+        for (int s = 0; s < counts.length; s++) {
+            if (counts[s] == 0) continue;
+            String name = s < STATUSES.length ? Integer.toString(STATUSES[s]) : s == OTHER ? "other" : "error";
+            out.append(name).append('=').append(counts[s]).append(' ');
+        }
+        if (solves >= 0) out.append("solved=").append(solves);
+        return out.toString().trim();
+    }
+
+    // --- opciones ---
+
+    private static String option(Map<String, String> options, String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    private int intOption(String name, int fallback) {
+        return Integer.parseInt(option(options, name, Integer.toString(fallback)));
+    }
+
+    private double doubleOption(String name, double fallback) {
+        return Double.parseDouble(option(options, name, Double.toString(fallback)));
+    }
+}
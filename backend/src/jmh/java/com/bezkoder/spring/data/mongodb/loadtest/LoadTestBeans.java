@@ -0,0 +1,88 @@
+package com.bezkoder.spring.data.mongodb.loadtest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.bezkoder.spring.data.mongodb.benchmark.InMemoryRepositories;
+import com.bezkoder.spring.data.mongodb.benchmark.MemoryItemStore;
+import com.bezkoder.spring.data.mongodb.benchmark.MemorySolutionGridStore;
+import com.bezkoder.spring.data.mongodb.repository.ItemStore;
+import com.bezkoder.spring.data.mongodb.repository.ReactiveSolutionGridRepository;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridRepository;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridStore;
+
+/**
+ * Beans que sustituyen a Mongo en la prueba de carga (con storage.backend=memory no se crea ningún store):
+ * items y soluciones en los stores en memoria de los benchmarks (las soluciones con la latencia de StoreLatency),
+ * la vista reactiva para guess.pipeline=reactive y un reloj que se puede adelantar, marcado como primario
+ * para que lo use toda la aplicación.
+ *
+ * Se registra a mano (initializer) y no con @Configuration: así el escaneo de componentes de la aplicación
+ * no lo recoge cuando las fuentes de src/jmh están en el classpath.
+ */
+final class LoadTestBeans implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    private final ShiftingClock clock;
+    private final StoreLatency latency;
+    private final SolutionGridRepository grids = InMemoryRepositories.solutionGrids();
+
+    LoadTestBeans(ShiftingClock clock, StoreLatency latency) {
+        this.clock = clock;
+        this.latency = latency;
+    }
+
+    // los documentos tal cual, sin latencia ni cache: lo que los clientes "saben" de cada día no calienta la aplicación
+    SolutionGridRepository grids() {
+        return grids;
+    }
+
+    StoreLatency latency() {
+        return latency;
+    }
+
+    @Override
+    public void initialize(GenericApplicationContext context) {
+        context.registerBean("loadTestClock", Clock.class, () -> clock, bd -> bd.setPrimary(true));
+        context.registerBean(ItemStore.class, () -> new MemoryItemStore(InMemoryRepositories.items(List.of())));
+        // las dos vistas de las soluciones, con la misma latencia: la bloqueante (GuessController, generación)
+        // y la reactiva (ReactiveSolutionLookup)
+        context.registerBean(SolutionGridStore.class, () -> latency.blocking(new MemorySolutionGridStore(grids)));
+        context.registerBean(ReactiveSolutionGridRepository.class,
+                () -> InMemoryRepositories.reactiveSolutionGrids(grids, latency::next));
+    }
+
+    /**
+     * Reloj del sistema desplazado: sigue avanzando en tiempo real, pero se puede colocar en cualquier instante
+     * (p.ej. unos segundos antes de la medianoche de Madrid). Las copias de withZone comparten el desplazamiento.
+     */
+    static final class ShiftingClock extends Clock {
+        private final AtomicLong offsetMs;
+        private final ZoneId zone;
+
+        ShiftingClock() {
+            this(new AtomicLong(), ZoneOffset.UTC);
+        }
+
+        private ShiftingClock(AtomicLong offsetMs, ZoneId zone) {
+            this.offsetMs = offsetMs;
+            this.zone = zone;
+        }
+
+        // a partir de ahora instant() empieza en target
+        void jumpTo(Instant target) {
+            offsetMs.set(target.toEpochMilli() - System.currentTimeMillis());
+        }
+
+        @Override public ZoneId getZone() { return zone; }
+        @Override public Clock withZone(ZoneId zone) { return new ShiftingClock(offsetMs, zone); }
+        @Override public long millis() { return System.currentTimeMillis() + offsetMs.get(); }
+        @Override public Instant instant() { return Instant.ofEpochMilli(millis()); }
+    }
+}
@@ -0,0 +1,80 @@
+package com.bezkoder.spring.data.mongodb.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridStore;
+
+/**
+ * Lo que tarda en responder el "Mongo" de la prueba de carga: delay en cada llamada y, con probabilidad
+ * stallChance, un parón de stall además (elección de primario, GC del servidor, disco lento...).
+ * Las dos vistas del store lo aplican a su manera: la bloqueante duerme el hilo que llama y la reactiva
+ * retrasa la señal sin ocupar ningún hilo, como haría cada driver.
+ */
+final class StoreLatency {
+
+    static final StoreLatency NONE = new StoreLatency(Duration.ZERO, Duration.ZERO, 0);
+
+    private final Duration delay;
+    private final Duration stall;
+    private final double stallChance;
+
+    StoreLatency(Duration delay, Duration stall, double stallChance) {
+        this.delay = delay;
+        this.stall = stall;
+        this.stallChance = stallChance;
+    }
+
+    Duration next() {
+        if (stallChance > 0 && ThreadLocalRandom.current().nextDouble() < stallChance) return delay.plus(stall);
+        return delay;
+    }
+
+    @Override
+    public String toString() {
+        return delay.toMillis() + " ms per call, " + stall.toMillis() + " ms stall on " + (stallChance * 100) + "% of calls";
+    }
+
+    private void sleep() {
+        Duration d = next();
+        if (d.isZero()) return;
+        try {
+            Thread.sleep(d.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // el store bloqueante con su latencia: cada llamada duerme al hilo que la hace
+    SolutionGridStore blocking(SolutionGridStore store) {
+        return new SolutionGridStore() {
+            @Override
+            public Optional<SolutionGrid> findByDate(String date) {
+                sleep();
+                return store.findByDate(date);
+            }
+
+            @Override
+            public SolutionGrid insert(SolutionGrid grid) {
+                sleep();
+                return store.insert(grid);
+            }
+
+            @Override
+            public int insertAll(List<SolutionGrid> grids) {
+                sleep();
+                return store.insertAll(grids);
+            }
+
+            @Override
+            public Set<String> datesBetween(String from, String to) {
+                sleep();
+                return store.datesBetween(from, to);
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * /api/admin/** sólo con la cabecera X-Admin-Token igual a admin.token.
+ * Sin admin.token configurado la API de administración no existe (404).
+ */
+@Configuration
+public class AdminAccessConfig implements WebMvcConfigurer {
+
+    public static final String HEADER = "X-Admin-Token";
+
+    private final byte[] token;
+
+    public AdminAccessConfig(@Value("${admin.token:}") String token) {
+        this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (token == null) {
+                    response.setStatus(HttpStatus.NOT_FOUND.value());
+                    return false;
+                }
+                String sent = request.getHeader(HEADER);
+                // comparación en tiempo constante: no se puede adivinar el token carácter a carácter
+                if (sent == null || !MessageDigest.isEqual(token, sent.getBytes(StandardCharsets.UTF_8))) {
+                    response.setStatus(HttpStatus.UNAUTHORIZED.value());
+                    return false;
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/admin/**");
+    }
+}
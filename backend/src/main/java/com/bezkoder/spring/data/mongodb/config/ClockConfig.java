@@ -0,0 +1,16 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ClockConfig {
+
+    // reloj único de la aplicación (los tests / load tests pueden sustituirlo)
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
@@ -1,36 +1,61 @@
 package com.bezkoder.spring.data.mongodb.config;
+import java.io.InputStream;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
 
 import com.bezkoder.spring.data.mongodb.model.Item;
 import com.bezkoder.spring.data.mongodb.service.ItemService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Configuration
 public class DataLoader {
 
+    private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
+    // catálogo de serie: al cambiar los items hay que subir la versión para que se vuelva a sembrar
+    static class CatalogFile {
+        public int version;
+        public List<Item> items;
+    }
+
     @Bean
-    CommandLineRunner init(ItemService itemService) {
-        return args -> {
-            // Si la colección está vacía, insertar los items ejemplo
-            if (itemService.findAll().isEmpty()) {
-                List<Item> items = List.of(
-                    new Item("surv12","Surv12","#20160e","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/3/36/Surv12.png",3,1),
-                    new Item("grizzly","Grizzly","#20160e","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/4/4b/EFT_Grizzly.png",2,2),
-                    new Item("bitcoin","0.2 BTC","#2b202d","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/5/50/Bitcoin.png",1,1),
-                    new Item("salewa","Salewa","#20160e","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/a/a3/EFT_Salewa-First-Aid-Kit.png",1,2),
-                    new Item("docs","Documents case","#20160e","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/1/15/Document-Case_ins.png",1,2),
-                    new Item("m855A1","M855A1","#302f1e","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/f/f5/M855A1.png",1,1),
-                    new Item("gpu","GPU","#132025","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/b/b3/Graphics_Card_icon.png",2,1),
-                    new Item("cms","CMS","#20160e","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/6/6d/CMS_Icon.png",2,1),
-                    new Item("ibuprofen","Ibuprofen","#20160e","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/8/8a/Ibuprofen_painkiller_icon.png",1,1),
-                    new Item("dogtag","Dogtag","#132025","https://static.wikia.nocookie.net/escapefromtarkov_gamepedia/images/3/33/BEAR_Dogtag_Icon.png",1,1)
-                );
-                itemService.saveAll(items);
-                System.out.println("Seeded items to Mongo");
+    CommandLineRunner init(ItemService itemService, ObjectMapper mapper,
+                           @Value("${items.seed.resource:classpath:catalog/items.json}") Resource resource) {
+        return new Seeder(itemService, mapper, resource);
+    }
+
+    // antes que GenerateSolutionsRunner (@Order(100)): generar sin catálogo dejaría días vacíos para siempre.
+    // El orden va en la clase: Spring Boot ordena los runners por su instancia, no por el método @Bean
+    @Order(0)
+    static class Seeder implements CommandLineRunner {
+        private final ItemService itemService;
+        private final ObjectMapper mapper;
+        private final Resource resource;
+
+        Seeder(ItemService itemService, ObjectMapper mapper, Resource resource) {
+            this.itemService = itemService;
+            this.mapper = mapper;
+            this.resource = resource;
+        }
+
+        @Override
+        public void run(String... args) throws Exception {
+            CatalogFile catalog;
+            try (InputStream in = resource.getInputStream()) {
+                catalog = mapper.readValue(in, CatalogFile.class);
+            }
+            // si el almacén ya tiene esta versión no se lee ni se escribe ningún item
+            if (itemService.seed(catalog.version, catalog.items)) {
+                log.info("Seeded item catalog v{} ({} items)", catalog.version, catalog.items.size());
             }
-        };
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.bezkoder.spring.data.mongodb.service.SolutionGridBulkGenerator;
+
+/**
+ * Modo CLI: genera un rango de soluciones y termina, sin quedarse sirviendo peticiones.
+ * java -jar app.jar --generate-solutions=2026-01-01:2026-12-31
+ */
+@Component
+@Order(100)
+public class GenerateSolutionsRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerateSolutionsRunner.class);
+
+    private final SolutionGridBulkGenerator bulkGenerator;
+    private final ConfigurableApplicationContext context;
+
+    public GenerateSolutionsRunner(SolutionGridBulkGenerator bulkGenerator, ConfigurableApplicationContext context) {
+        this.bulkGenerator = bulkGenerator;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> values = args.getOptionValues("generate-solutions");
+        if (values == null || values.isEmpty()) return;
+
+        String[] range = values.get(0).split(":");
+        LocalDate from = LocalDate.parse(range[0]);
+        LocalDate to = range.length > 1 ? LocalDate.parse(range[1]) : from;
+        log.info("Generated solutions: {}", bulkGenerator.generateRange(from, to));
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,17 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridConverters;
+
+// los SolutionGrid se guardan en formato compacto (ver SolutionGridConverters); lo usan el driver bloqueante y el reactivo
+@Configuration
+public class MongoConversionsConfig {
+
+    @Bean
+    MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(SolutionGridConverters.all());
+    }
+}
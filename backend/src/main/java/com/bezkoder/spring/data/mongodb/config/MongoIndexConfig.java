@@ -0,0 +1,74 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.bezkoder.spring.data.mongodb.model.PlayerDay;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+
+@Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "mongo", matchIfMissing = true)
+public class MongoIndexConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    @Bean
+    CommandLineRunner solutionGridIndexes(MongoTemplate mongoTemplate) {
+        return new SolutionGridIndexes(mongoTemplate);
+    }
+
+    // antes que GenerateSolutionsRunner (@Order(100)): sin el índice único, dos nodos podrían guardar el mismo día.
+    // Como en DataLoader.Seeder, el orden va en la clase y no en el método @Bean
+    @Order(0)
+    static class SolutionGridIndexes implements CommandLineRunner {
+        private final MongoTemplate mongoTemplate;
+
+        SolutionGridIndexes(MongoTemplate mongoTemplate) {
+            this.mongoTemplate = mongoTemplate;
+        }
+
+        @Override
+        public void run(String... args) {
+            // el índice único no se puede crear si ya hay días duplicados: nos quedamos con el más antiguo
+            removeDuplicateDates();
+            mongoTemplate.indexOps(SolutionGrid.class)
+                    .ensureIndex(new Index().on("date", Sort.Direction.ASC).unique());
+            // historial de un jugador (PlayerSessionWriter.history)
+            mongoTemplate.indexOps(PlayerDay.class)
+                    .ensureIndex(new Index().on("player", Sort.Direction.ASC).on("date", Sort.Direction.DESC));
+        }
+
+        private void removeDuplicateDates() {
+            List<Document> duplicated = mongoTemplate.aggregate(newAggregation(
+                    sort(Sort.Direction.ASC, "_id"),
+                    group("date").push("_id").as("ids").count().as("count"),
+                    match(where("count").gt(1))
+            ), SolutionGrid.class, Document.class).getMappedResults();
+
+            for (Document d : duplicated) {
+                List<Object> ids = d.getList("ids", Object.class);
+                List<Object> extra = ids.subList(1, ids.size());
+                mongoTemplate.remove(Query.query(where("_id").in(extra)), SolutionGrid.class);
+                log.info("Removed {} duplicated solution grids for {}", extra.size(), d.get("_id"));
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * El driver reactivo de Mongo abre su propio MongoClient (otro pool de conexiones, otros hilos):
+ * sólo se configura con guess.pipeline=reactive. Con el pipeline bloqueante sus autoconfiguraciones
+ * se añaden a spring.autoconfigure.exclude (sin quitar las que ya hubiera, p.ej. las del perfil embedded).
+ * Registrado en META-INF/spring.factories.
+ */
+public class ReactiveMongoExclusions implements EnvironmentPostProcessor {
+
+    static final String EXCLUDE = "spring.autoconfigure.exclude";
+    static final List<String> REACTIVE = List.of(
+            "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if ("reactive".equals(environment.getProperty("guess.pipeline"))) return;
+        Set<String> excluded = new LinkedHashSet<>(List.of(Binder.get(environment).bind(EXCLUDE, String[].class).orElse(new String[0])));
+        excluded.addAll(REACTIVE);
+        environment.getPropertySources().addFirst(new MapPropertySource("reactiveMongoExclusions",
+                Map.of(EXCLUDE, String.join(",", excluded))));
+    }
+}
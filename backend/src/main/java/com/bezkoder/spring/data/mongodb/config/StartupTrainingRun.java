@@ -0,0 +1,25 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecución de entrenamiento del perfil Maven 'cds' (--startup.training-run=true): en cuanto el contexto
+ * está levantado, y antes de los runners que hablan con Mongo, la aplicación se cierra y la JVM vuelca
+ * las clases cargadas en el archivo CDS.
+ *
+ * No lleva @ConditionalOnProperty a propósito: con AOT las condiciones se resuelven al compilar.
+ */
+@Component
+public class StartupTrainingRun implements ApplicationListener<ApplicationStartedEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationStartedEvent event) {
+        if (!event.getApplicationContext().getEnvironment().getProperty("startup.training-run", Boolean.class, false)) {
+            return;
+        }
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+    }
+}
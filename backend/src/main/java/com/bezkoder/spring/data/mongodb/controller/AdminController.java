@@ -0,0 +1,63 @@
+package com.bezkoder.spring.data.mongodb.controller;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridStore;
+import com.bezkoder.spring.data.mongodb.service.SolutionGridBulkGenerator;
+import com.bezkoder.spring.data.mongodb.service.SolutionGridCache;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// protegido por AdminAccessConfig (cabecera X-Admin-Token); sin CORS: no se llama desde el navegador
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final SolutionGridCache cache;
+    private final SolutionGridBulkGenerator bulkGenerator;
+    private final SolutionGridStore solutionGridStore;
+
+    public AdminController(SolutionGridCache cache, SolutionGridBulkGenerator bulkGenerator,
+                           SolutionGridStore solutionGridStore) {
+        this.cache = cache;
+        this.bulkGenerator = bulkGenerator;
+        this.solutionGridStore = solutionGridStore;
+    }
+
+    @GetMapping("/cache")
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", cache.getHits());
+        stats.put("misses", cache.getMisses());
+        stats.put("dates", cache.getDates());
+        return stats;
+    }
+
+    // pre-genera todas las soluciones del rango (ambos incluidos) que aún no existan
+    @PostMapping("/solutions/generate")
+    public ResponseEntity<Map<String, Object>> generate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(bulkGenerator.generateRange(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            // catálogo vacío: no hay con qué generar
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // para revisar un puzzle antes de que salga
+    @GetMapping("/solutions/{date}")
+    public ResponseEntity<SolutionGrid> solution(@PathVariable String date) {
+        return solutionGridStore.findByDate(date)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
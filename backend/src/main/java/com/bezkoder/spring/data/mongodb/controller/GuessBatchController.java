@@ -0,0 +1,36 @@
+package com.bezkoder.spring.data.mongodb.controller;
+
+import com.bezkoder.spring.data.mongodb.service.BatchGuessScorer;
+import com.bezkoder.spring.data.mongodb.service.PuzzleCalendar;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+// re-puntuación masiva (análisis, históricos): va con la API de administración, protegida por AdminAccessConfig.
+// Sin límite de intentos ni token de jugador, así que no puede estar abierta a cualquiera
+@RestController
+@RequestMapping("/api/admin")
+public class GuessBatchController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final BatchGuessScorer scorer;
+    private final PuzzleCalendar calendar;
+
+    public GuessBatchController(BatchGuessScorer scorer, PuzzleCalendar calendar) {
+        this.scorer = scorer;
+        this.calendar = calendar;
+    }
+
+    // entrada y salida en streaming: una línea JSON por guess ({"date": "...", "grid": [...]});
+    // sin "date" cuenta como hoy en la zona de X-Puzzle-Zone, como en /api/guess
+    @PostMapping(value = "/guess/batch", consumes = NDJSON, produces = NDJSON)
+    public void guessBatch(@RequestHeader(value = PuzzleCalendar.HEADER, required = false) String zoneId,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        scorer.score(request.getInputStream(), response.getOutputStream(), calendar.zoneFor(zoneId));
+    }
+}
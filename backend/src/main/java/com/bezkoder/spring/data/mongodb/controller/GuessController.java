@@ -2,76 +2,63 @@ package com.bezkoder.spring.data.mongodb.controller;
 
 import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
 import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
-import com.bezkoder.spring.data.mongodb.dto.GuessResponse.CorrectCell;
-import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.service.CompiledSolution;
+import com.bezkoder.spring.data.mongodb.service.GuessService;
+import com.bezkoder.spring.data.mongodb.service.PlayerSessions;
+import com.bezkoder.spring.data.mongodb.service.PuzzleCalendar;
 import com.bezkoder.spring.data.mongodb.service.SolutionGridService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
 
+// pipeline por defecto (guess.pipeline=blocking): todo en el hilo del servlet
 @CrossOrigin(origins = "*")
 @RestController
 @RequestMapping("/api")
+@ConditionalOnProperty(name = "guess.pipeline", havingValue = "blocking", matchIfMissing = true)
 public class GuessController {
 
     private final SolutionGridService solutionGridService;
+    private final PuzzleCalendar calendar;
+    private final GuessService guessService;
 
-    public GuessController(SolutionGridService solutionGridService) {
+    public GuessController(SolutionGridService solutionGridService, PuzzleCalendar calendar, GuessService guessService) {
         this.solutionGridService = solutionGridService;
+        this.calendar = calendar;
+        this.guessService = guessService;
     }
 
     @PostMapping("/guess")
-    public ResponseEntity<GuessResponse> guess(@RequestBody GuessRequest request) {
-        if (request == null || request.getGrid() == null || request.getGrid().size() != 9) {
+    public ResponseEntity<GuessResponse> guess(@RequestBody GuessRequest request,
+                                               @RequestHeader(value = PlayerSessions.HEADER, required = false) String player,
+                                               @RequestHeader(value = PuzzleCalendar.HEADER, required = false) String zoneId) {
+        long start = System.nanoTime();
+        if (!guessService.accepts(request, player)) {
             return ResponseEntity.badRequest().build();
         }
 
-        LocalDate today = LocalDate.now(ZoneId.of("Europe/Madrid"));
-        SolutionGrid solution = solutionGridService.findOrCreateForDate(today);
+        // el día del puzzle es el de la zona del jugador (la de Madrid si no la manda)
+        ZoneId zone = calendar.zoneFor(zoneId);
+        LocalDate today = calendar.today(zone);
+        CompiledSolution solution = solutionGridService.solutionForDate(today);
 
-        List<CorrectCell> correctCells = new ArrayList<>();
-        List<String> solutionMain = solution.getMainCells(); // mainCells (start positions)
-        List<String> solutionCells = solution.getCells();     // coverage por celda 0..8
-
-        // número de items en la solución (contando mainCells no-nulas)
-        int solutionItemsCount = 0;
-        for (String s : solutionMain) if (s != null) solutionItemsCount++;
-
-        // Para cada índice 0..8, comprobar si el cliente puso una main cell ahí
-        for (int i = 0; i < 9; i++) {
-            GuessRequest.CellDTO cell = request.getGrid().get(i);
-            if (cell == null) continue;
-            String sentId = cell.getId();
-            // sólo consideramos comparación si el cliente indica isMainCell (por seguridad)
-            Boolean isMain = cell.getIsMainCell();
-            if (isMain == null || !isMain) continue;
+        return toResponse(guessService.evaluate(start, today, zone, solution, request, player));
+    }
 
-            // si en la solución en esa misma posición hay una main cell con el mismo id -> correcto
-            String solMainId = (solutionMain != null && solutionMain.size() > i) ? solutionMain.get(i) : null;
-            if (solMainId != null && Objects.equals(solMainId, sentId)) {
-                // encontrar todas las posiciones cubiertas por ese item en solutionCells
-                List<Integer> covered = new ArrayList<>();
-                if (solutionCells != null) {
-                    for (int j = 0; j < solutionCells.size(); j++) {
-                        if (Objects.equals(solutionCells.get(j), solMainId)) {
-                            covered.add(j);
-                        }
-                    }
-                }
-                int row = i / 3;
-                int col = i % 3;
-                correctCells.add(new CorrectCell(i, row, col, solMainId, covered));
-            }
+    // también lo usa ReactiveGuessController
+    static ResponseEntity<GuessResponse> toResponse(GuessService.Result result) {
+        switch (result.getStatus()) {
+            case SCORED:
+                return ResponseEntity.ok(result.getResponse());
+            case OUT_OF_ATTEMPTS:
+                // sin más intentos por hoy
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+            default:
+                return ResponseEntity.badRequest().build();
         }
-
-        boolean allCorrect = (correctCells.size() == solutionItemsCount);
-
-        GuessResponse resp = new GuessResponse(allCorrect, correctCells);
-        return ResponseEntity.ok(resp);
     }
 }
@@ -0,0 +1,67 @@
+package com.bezkoder.spring.data.mongodb.controller;
+
+import com.bezkoder.spring.data.mongodb.service.SpriteAtlas;
+import com.bezkoder.spring.data.mongodb.service.SpriteAtlasService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/icons")
+public class IconController {
+
+    // la clave cambia con el contenido: lo que hay detrás de una URL versionada no cambia nunca
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final SpriteAtlasService atlasService;
+
+    public IconController(SpriteAtlasService atlasService) {
+        this.atlasService = atlasService;
+    }
+
+    // manifest del atlas actual: el cliente lo revalida (ETag) y de ahí saca la URL versionada de cada página
+    @GetMapping("/atlas")
+    public ResponseEntity<byte[]> current(WebRequest request) {
+        SpriteAtlas atlas = atlasService.current();
+        String etag = "\"" + atlas.getKey() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(atlas.getManifest());
+    }
+
+    @GetMapping("/atlas/{key}/{page}.png")
+    public ResponseEntity<byte[]> image(@PathVariable String key, @PathVariable int page) {
+        return versioned(key, MediaType.IMAGE_PNG, atlas -> atlas.getPage(page));
+    }
+
+    @GetMapping("/atlas/{key}.json")
+    public ResponseEntity<byte[]> manifest(@PathVariable String key) {
+        return versioned(key, MediaType.APPLICATION_JSON, SpriteAtlas::getManifest);
+    }
+
+    private ResponseEntity<byte[]> versioned(String key, MediaType type, Function<SpriteAtlas, byte[]> body) {
+        return atlasService.forKey(key)
+                .map(atlas -> {
+                    byte[] bytes = body.apply(atlas);
+                    return bytes == null ? ResponseEntity.notFound().<byte[]>build()
+                            : ResponseEntity.ok().contentType(type).cacheControl(IMMUTABLE).body(bytes);
+                })
+                // clave de un atlas que se está construyendo ahora mismo: que vuelva a pedirla en un momento
+                .orElseGet(() -> atlasService.isRebuilding()
+                        ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build()
+                        : ResponseEntity.notFound().build());
+    }
+}
@@ -1,7 +1,7 @@
 package com.bezkoder.spring.data.mongodb.controller;
 
-import java.util.List;
-
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,9 +10,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.service.ItemCatalog;
+import com.bezkoder.spring.data.mongodb.service.ItemSearchIndex;
 import com.bezkoder.spring.data.mongodb.service.ItemService;
 
 @CrossOrigin(origins = "*")
@@ -20,15 +24,46 @@ import com.bezkoder.spring.data.mongodb.service.ItemService;
 @RequestMapping("/api/items")
 public class ItemController  {
 
+    private static final int MAX_PAGE = 200;
+
     private final ItemService service;
 
     public ItemController(ItemService service) {
         this.service = service;
     }
 
+    // JSON ya serializado por versión del catálogo; si el cliente tiene la misma versión -> 304
     @GetMapping
-    public List<Item> getAll() {
-        return service.findAll();
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
+        ItemCatalog catalog = service.catalog();
+        if (request.checkNotModified(catalog.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.getEtag())
+                .body(catalog.getJson());
+    }
+
+    /**
+     * Búsqueda paginada por nombre y tamaño/color, para catálogos grandes.
+     * Sin q devuelve el catálogo entero por páginas; nextCursor va en la siguiente petición.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ItemSearchIndex.Page> search(@RequestParam(required = false) String q,
+                                                      @RequestParam(required = false) Integer width,
+                                                      @RequestParam(required = false) Integer height,
+                                                      @RequestParam(required = false) String color,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE) return ResponseEntity.badRequest().build();
+        try {
+            return ResponseEntity.ok(service.search(q, width, height, color, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            // cursor mal formado
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,82 @@
+package com.bezkoder.spring.data.mongodb.controller;
+
+import com.bezkoder.spring.data.mongodb.service.DailyLeaderboard;
+import com.bezkoder.spring.data.mongodb.service.LeaderboardService;
+import com.bezkoder.spring.data.mongodb.service.MergedLeaderboard;
+import com.bezkoder.spring.data.mongodb.service.PlayerSessions;
+import com.bezkoder.spring.data.mongodb.service.PuzzleCalendar;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// clasificación del día (menos intentos, luego menos tiempo), toda desde memoria (la de todos los nodos)
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboards;
+    private final PlayerSessions sessions;
+    private final PuzzleCalendar calendar;
+
+    public LeaderboardController(LeaderboardService leaderboards, PlayerSessions sessions, PuzzleCalendar calendar) {
+        this.leaderboards = leaderboards;
+        this.sessions = sessions;
+        this.calendar = calendar;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> today(@RequestHeader(value = PuzzleCalendar.HEADER, required = false) String zoneId,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        return forDate(calendar.today(calendar.zoneFor(zoneId)).toString(), limit);
+    }
+
+    @GetMapping("/{date:\\d{4}-\\d{2}-\\d{2}}")
+    public ResponseEntity<Map<String, Object>> forDate(@PathVariable String date,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > leaderboards.getTopSize()) return ResponseEntity.badRequest().build();
+        Optional<MergedLeaderboard> board = leaderboards.standings(date);
+        if (board.isEmpty()) return ResponseEntity.notFound().build();
+
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (DailyLeaderboard.Entry e : board.get().top(limit)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rank", e.getRank());
+            row.put("player", PlayerSessions.playerId(e.getPlayer()));
+            row.put("attempts", e.getAttempts());
+            row.put("seconds", e.getSeconds());
+            top.add(row);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("date", date);
+        out.put("solvers", board.get().solvers());
+        out.put("top", top);
+        return ResponseEntity.ok(out);
+    }
+
+    // puesto del jugador hoy (null si aún no lo ha resuelto)
+    @GetMapping("/me")
+    public ResponseEntity<Map<String, Object>> me(@RequestHeader(value = PlayerSessions.HEADER, required = false) String token,
+                                                  @RequestHeader(value = PuzzleCalendar.HEADER, required = false) String zoneId) {
+        if (token == null || token.isBlank()) return ResponseEntity.badRequest().build();
+        ZoneId zone = calendar.zoneFor(zoneId);
+        String date = calendar.today(zone).toString();
+        int score = sessions.todayScore(PlayerSessions.key(token), zone);
+        Optional<MergedLeaderboard> board = leaderboards.standings(date);
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("date", date);
+        out.put("solvers", board.map(MergedLeaderboard::solvers).orElse(0L));
+        boolean ranked = score != 0 && board.isPresent();
+        out.put("rank", ranked ? board.get().rank(DailyLeaderboard.attempts(score), DailyLeaderboard.seconds(score)) : null);
+        out.put("attempts", ranked ? DailyLeaderboard.attempts(score) : null);
+        out.put("seconds", ranked ? DailyLeaderboard.seconds(score) : null);
+        return ResponseEntity.ok(out);
+    }
+}
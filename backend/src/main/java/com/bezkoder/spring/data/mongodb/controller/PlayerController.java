@@ -0,0 +1,74 @@
+package com.bezkoder.spring.data.mongodb.controller;
+
+import com.bezkoder.spring.data.mongodb.model.PlayerDay;
+import com.bezkoder.spring.data.mongodb.service.PlayerSessionWriter;
+import com.bezkoder.spring.data.mongodb.service.PlayerSessions;
+import com.bezkoder.spring.data.mongodb.service.PuzzleCalendar;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/players")
+public class PlayerController {
+
+    private static final int MAX_HISTORY_DAYS = 90;
+
+    private final PlayerSessions sessions;
+    private final PuzzleCalendar calendar;
+    // sólo con storage.backend=mongo: sin él no hay días anteriores guardados
+    private final Optional<PlayerSessionWriter> writer;
+
+    public PlayerController(PlayerSessions sessions, PuzzleCalendar calendar, Optional<PlayerSessionWriter> writer) {
+        this.sessions = sessions;
+        this.calendar = calendar;
+        this.writer = writer;
+    }
+
+    // el día de hoy del jugador, desde memoria
+    @GetMapping("/me")
+    public ResponseEntity<Map<String, Object>> today(@RequestHeader(value = PlayerSessions.HEADER, required = false) String token,
+                                                     @RequestHeader(value = PuzzleCalendar.HEADER, required = false) String zoneId) {
+        if (token == null || token.isBlank()) return ResponseEntity.badRequest().build();
+        long key = PlayerSessions.key(token);
+        ZoneId zone = calendar.zoneFor(zoneId);
+        PlayerDay day = sessions.today(key, zone)
+                .orElseGet(() -> new PlayerDay(PlayerSessions.playerId(key), calendar.today(zone).toString(), 0, 0, false, 0, 0, 0));
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("date", day.getDate());
+        out.put("attempts", day.getAttempts());
+        out.put("bestCorrect", day.getBestCorrect());
+        out.put("solved", day.isSolved());
+        int max = sessions.getMaxAttempts();
+        out.put("remaining", max > 0 ? Math.max(0, max - day.getAttempts()) : null);
+        return ResponseEntity.ok(out);
+    }
+
+    // días anteriores (los guardados en Mongo), con hoy delante desde memoria
+    @GetMapping("/me/history")
+    public ResponseEntity<List<PlayerDay>> history(@RequestHeader(value = PlayerSessions.HEADER, required = false) String token,
+                                                   @RequestHeader(value = PuzzleCalendar.HEADER, required = false) String zoneId,
+                                                   @RequestParam(defaultValue = "30") int days) {
+        if (token == null || token.isBlank() || days < 1 || days > MAX_HISTORY_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        long key = PlayerSessions.key(token);
+        List<PlayerDay> out = new ArrayList<>();
+        Optional<PlayerDay> today = sessions.today(key, calendar.zoneFor(zoneId));
+        today.ifPresent(out::add);
+        writer.ifPresent(w -> {
+            for (PlayerDay saved : w.history(PlayerSessions.playerId(key), days)) {
+                if (today.isEmpty() || !saved.getDate().equals(today.get().getDate())) out.add(saved);
+            }
+        });
+        return ResponseEntity.ok(out.size() > days ? out.subList(0, days) : out);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bezkoder.spring.data.mongodb.controller;
+
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
+import com.bezkoder.spring.data.mongodb.service.GuessService;
+import com.bezkoder.spring.data.mongodb.service.PlayerSessions;
+import com.bezkoder.spring.data.mongodb.service.PuzzleCalendar;
+import com.bezkoder.spring.data.mongodb.service.ReactiveSolutionLookup;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeoutException;
+
+// guess.pipeline=reactive: mismo contrato que GuessController, pero devuelve un Mono (petición asíncrona)
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(name = "guess.pipeline", havingValue = "reactive")
+public class ReactiveGuessController {
+
+    private final ReactiveSolutionLookup lookup;
+    private final PuzzleCalendar calendar;
+    private final GuessService guessService;
+
+    public ReactiveGuessController(ReactiveSolutionLookup lookup, PuzzleCalendar calendar, GuessService guessService) {
+        this.lookup = lookup;
+        this.calendar = calendar;
+        this.guessService = guessService;
+    }
+
+    @PostMapping("/guess")
+    public Mono<ResponseEntity<GuessResponse>> guess(@RequestBody GuessRequest request,
+                                                     @RequestHeader(value = PlayerSessions.HEADER, required = false) String player,
+                                                     @RequestHeader(value = PuzzleCalendar.HEADER, required = false) String zoneId) {
+        long start = System.nanoTime();
+        if (!guessService.accepts(request, player)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        ZoneId zone = calendar.zoneFor(zoneId);
+        LocalDate today = calendar.today(zone);
+        return lookup.solutionForDate(today)
+                .map(solution -> GuessController.toResponse(guessService.evaluate(start, today, zone, solution, request, player)))
+                // Mongo no contesta a tiempo: mejor un 503 rápido que hilos esperando
+                .onErrorResume(TimeoutException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()));
+    }
+}
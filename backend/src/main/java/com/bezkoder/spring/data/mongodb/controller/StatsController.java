@@ -0,0 +1,54 @@
+package com.bezkoder.spring.data.mongodb.controller;
+
+import com.bezkoder.spring.data.mongodb.service.DailyStats;
+import com.bezkoder.spring.data.mongodb.service.GuessEventBuffer;
+import com.bezkoder.spring.data.mongodb.service.GuessEventWriter;
+import com.bezkoder.spring.data.mongodb.service.GuessStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final GuessStatsService statsService;
+    private final GuessEventBuffer buffer;
+    // sólo existe con storage.backend=mongo; con el almacén embebido los eventos no se persisten
+    private final Optional<GuessEventWriter> writer;
+
+    public StatsController(GuessStatsService statsService, GuessEventBuffer buffer, Optional<GuessEventWriter> writer) {
+        this.statsService = statsService;
+        this.buffer = buffer;
+        this.writer = writer;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> today() {
+        return forDate(statsService.today().toString());
+    }
+
+    @GetMapping("/{date}")
+    public ResponseEntity<Map<String, Object>> forDate(@PathVariable String date) {
+        return statsService.forDate(date)
+                .map(DailyStats::snapshot)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // estado de la ingesta: cuántos eventos se han escrito, cuántos esperan y cuántos se han perdido
+    @GetMapping("/events")
+    public Map<String, Object> events() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("accepted", buffer.getAccepted());
+        out.put("buffered", buffer.getBuffered());
+        out.put("written", writer.map(GuessEventWriter::getWritten).orElse(0L));
+        out.put("dropped", buffer.getDropped());
+        out.put("sampledOut", buffer.getSampledOut());
+        return out;
+    }
+}
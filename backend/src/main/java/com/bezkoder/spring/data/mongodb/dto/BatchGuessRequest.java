@@ -0,0 +1,9 @@
+package com.bezkoder.spring.data.mongodb.dto;
+
+// una línea del NDJSON de /api/admin/guess/batch: un guess normal más la fecha (yyyy-MM-dd) a la que se refiere
+public class BatchGuessRequest extends GuessRequest {
+    private String date; // null -> hoy
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+}
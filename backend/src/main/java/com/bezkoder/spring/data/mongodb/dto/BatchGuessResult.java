@@ -0,0 +1,39 @@
+package com.bezkoder.spring.data.mongodb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// una línea de la respuesta de /api/admin/guess/batch: el GuessResponse de siempre + de qué línea/fecha viene
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchGuessResult extends GuessResponse {
+    private long line;   // número de línea de la entrada (desde 1)
+    private String date;
+    private String error; // si no se pudo puntuar esa línea
+
+    public BatchGuessResult() {}
+
+    public BatchGuessResult(long line, String date, GuessResponse response) {
+        super(response.isCorrect(), response.getCorrectCells());
+        this.line = line;
+        this.date = date;
+    }
+
+    public static BatchGuessResult error(long line, String date, String error) {
+        BatchGuessResult result = new BatchGuessResult();
+        result.line = line;
+        result.date = date;
+        result.error = error;
+        result.setCorrectCells(List.of());
+        return result;
+    }
+
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
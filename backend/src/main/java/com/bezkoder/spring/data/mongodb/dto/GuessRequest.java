@@ -3,7 +3,7 @@ package com.bezkoder.spring.data.mongodb.dto;
 import java.util.List;
 
 public class GuessRequest {
-    // Se espera un array de 9 objetos (o nulls). Cada objeto puede contener 'id' y 'isMainCell' (según frontend).
+    // Se espera un array de width*height objetos (o nulls), 9 para el pouch 3x3. Cada objeto puede contener 'id' y 'isMainCell' (según frontend).
     private List<CellDTO> grid;
 
     public List<CellDTO> getGrid() { return grid; }
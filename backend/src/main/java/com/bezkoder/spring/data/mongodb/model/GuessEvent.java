@@ -0,0 +1,46 @@
+package com.bezkoder.spring.data.mongodb.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+// un intento de un jugador (para analítica); se escriben en lote, fuera del request
+@Document(collection = "guess_events")
+public class GuessEvent {
+    @Id
+    private String id;
+
+    @Indexed
+    private String date;       // día del puzzle (yyyy-MM-dd)
+    private Instant at;
+    private boolean correct;   // todo acertado
+    private int correctCount;  // items en su sitio
+    // itemId colocado como main cell en cada casilla (o null)
+    private List<String> placed;
+
+    public GuessEvent() {}
+
+    public GuessEvent(String date, Instant at, boolean correct, int correctCount, List<String> placed) {
+        this.date = date;
+        this.at = at;
+        this.correct = correct;
+        this.correctCount = correctCount;
+        this.placed = placed;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+    public Instant getAt() { return at; }
+    public void setAt(Instant at) { this.at = at; }
+    public boolean isCorrect() { return correct; }
+    public void setCorrect(boolean correct) { this.correct = correct; }
+    public int getCorrectCount() { return correctCount; }
+    public void setCorrectCount(int correctCount) { this.correctCount = correctCount; }
+    public List<String> getPlaced() { return placed; }
+    public void setPlaced(List<String> placed) { this.placed = placed; }
+}
@@ -0,0 +1,66 @@
+package com.bezkoder.spring.data.mongodb.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+// copia de la clasificación de un día en un nodo: el top y el histograma de puntuaciones (para los puestos).
+// id = "<fecha>:<nodo>" (los antiguos, de un solo nodo, tienen id = fecha y ni fecha ni nodo)
+@Document(collection = "leaderboards")
+public class LeaderboardSnapshot {
+    @Id
+    private String id;
+
+    private String date;
+    private String node;          // leaderboard.node-id de quien lo escribió
+
+    private long solvers;
+    private List<Entry> top;
+    private byte[] counts;        // DailyLeaderboard.encodeCounts()
+
+    public static class Entry {
+        private String player;    // hash del token, como en player_days
+        private int attempts;
+        private int seconds;
+
+        public Entry() {}
+
+        public Entry(String player, int attempts, int seconds) {
+            this.player = player;
+            this.attempts = attempts;
+            this.seconds = seconds;
+        }
+
+        public String getPlayer() { return player; }
+        public void setPlayer(String player) { this.player = player; }
+        public int getAttempts() { return attempts; }
+        public void setAttempts(int attempts) { this.attempts = attempts; }
+        public int getSeconds() { return seconds; }
+        public void setSeconds(int seconds) { this.seconds = seconds; }
+    }
+
+    public LeaderboardSnapshot() {}
+
+    public LeaderboardSnapshot(String date, String node, long solvers, List<Entry> top, byte[] counts) {
+        this.id = date + ":" + node;
+        this.date = date;
+        this.node = node;
+        this.solvers = solvers;
+        this.top = top;
+        this.counts = counts;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getDate() { return date != null ? date : id; }
+    public void setDate(String date) { this.date = date; }
+    public String getNode() { return node; }
+    public void setNode(String node) { this.node = node; }
+    public long getSolvers() { return solvers; }
+    public void setSolvers(long solvers) { this.solvers = solvers; }
+    public List<Entry> getTop() { return top; }
+    public void setTop(List<Entry> top) { this.top = top; }
+    public byte[] getCounts() { return counts; }
+    public void setCounts(byte[] counts) { this.counts = counts; }
+}
@@ -0,0 +1,56 @@
+package com.bezkoder.spring.data.mongodb.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// resumen del día de un jugador; el id es "<player>:<date>" para poder hacer upsert sin leer antes
+@Document(collection = "player_days")
+@CompoundIndex(name = "player_date", def = "{'player': 1, 'date': -1}")
+public class PlayerDay {
+    @Id
+    private String id;
+
+    private String player;        // hash del token (nunca el token en sí)
+    private String date;          // día del puzzle (yyyy-MM-dd)
+    private int attempts;
+    private int bestCorrect;      // máximo de items en su sitio en un intento
+    private boolean solved;
+    private int firstAttemptSecond; // segundo del día (en la zona del jugador) del primer intento
+    private int solveAttempts;      // intentos y segundos (desde el primer intento) al resolverlo; 0 si no
+    private int solveSeconds;
+
+    public PlayerDay() {}
+
+    public PlayerDay(String player, String date, int attempts, int bestCorrect, boolean solved, int firstAttemptSecond,
+                     int solveAttempts, int solveSeconds) {
+        this.id = player + ":" + date;
+        this.player = player;
+        this.date = date;
+        this.attempts = attempts;
+        this.bestCorrect = bestCorrect;
+        this.solved = solved;
+        this.firstAttemptSecond = firstAttemptSecond;
+        this.solveAttempts = solveAttempts;
+        this.solveSeconds = solveSeconds;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getPlayer() { return player; }
+    public void setPlayer(String player) { this.player = player; }
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public int getBestCorrect() { return bestCorrect; }
+    public void setBestCorrect(int bestCorrect) { this.bestCorrect = bestCorrect; }
+    public boolean isSolved() { return solved; }
+    public void setSolved(boolean solved) { this.solved = solved; }
+    public int getFirstAttemptSecond() { return firstAttemptSecond; }
+    public void setFirstAttemptSecond(int firstAttemptSecond) { this.firstAttemptSecond = firstAttemptSecond; }
+    public int getSolveAttempts() { return solveAttempts; }
+    public void setSolveAttempts(int solveAttempts) { this.solveAttempts = solveAttempts; }
+    public int getSolveSeconds() { return solveSeconds; }
+    public void setSolveSeconds(int solveSeconds) { this.solveSeconds = solveSeconds; }
+}
@@ -1,30 +1,48 @@
 package com.bezkoder.spring.data.mongodb.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
 import java.util.List;
 
+// en Mongo mainCells/cells no se guardan como listas sino en formato compacto (ver SolutionGridConverters)
 @Document(collection = "solution_grids")
 public class SolutionGrid {
+    public static final int DEFAULT_SIZE = 3;
+
     @Id
     private String id;
 
-    // Fecha en formato ISO (yyyy-MM-dd) para identificar el día
+    // Fecha en formato ISO (yyyy-MM-dd) para identificar el día (única: una solución por día)
+    @Indexed(unique = true)
     private String date;
 
+    // tamaño del contenedor; los documentos antiguos no lo tienen y eran 3x3
+    private int width;
+    private int height;
+
     // mainCells: itemId donde empieza (main cell) o null
     private List<String> mainCells = new ArrayList<>();
 
-    // cells: itemId que ocupa cada casilla 0..8 (incluye las celdas "cubiertas" por items de tamaño >1)
+    // cells: itemId que ocupa cada casilla 0..width*height-1 (incluye las celdas "cubiertas" por items de tamaño >1)
     private List<String> cells = new ArrayList<>();
 
+    // número de colocaciones válidas de estos mismos items (1 = única); null si no se calculó
+    private Long solutionCount;
+
     public SolutionGrid() {
-        // inicializar a 9 nulls
+        this(DEFAULT_SIZE, DEFAULT_SIZE);
+    }
+
+    public SolutionGrid(int width, int height) {
+        // inicializar a width*height nulls
+        this.width = width;
+        this.height = height;
         this.mainCells = new ArrayList<>();
         this.cells = new ArrayList<>();
-        for (int i = 0; i < 9; i++) {
+        for (int i = 0; i < width * height; i++) {
             this.mainCells.add(null);
             this.cells.add(null);
         }
@@ -43,9 +61,18 @@ public class SolutionGrid {
     public String getDate() { return date; }
     public void setDate(String date) { this.date = date; }
 
+    public int getWidth() { return width > 0 ? width : DEFAULT_SIZE; }
+    public void setWidth(int width) { this.width = width; }
+
+    public int getHeight() { return height > 0 ? height : DEFAULT_SIZE; }
+    public void setHeight(int height) { this.height = height; }
+
     public List<String> getMainCells() { return mainCells; }
     public void setMainCells(List<String> mainCells) { this.mainCells = mainCells; }
 
     public List<String> getCells() { return cells; }
     public void setCells(List<String> cells) { this.cells = cells; }
+
+    public Long getSolutionCount() { return solutionCount; }
+    public void setSolutionCount(Long solutionCount) { this.solutionCount = solutionCount; }
 }
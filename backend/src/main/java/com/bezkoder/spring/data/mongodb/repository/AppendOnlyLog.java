@@ -0,0 +1,115 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Log de sólo-añadir sobre un fichero mapeado en memoria. Cada registro es [longitud][crc32][datos]
+ * y una longitud 0 marca el final. Al abrir se reproduce entero: un registro cortado o con el crc
+ * mal (caída a mitad de escritura) se toma como final y lo siguiente que se escriba lo pisa.
+ */
+public final class AppendOnlyLog implements Closeable {
+
+    private static final int HEADER = 8;
+    private static final int MIN_CAPACITY = 1 << 20;
+
+    private final FileChannel channel;
+    private final boolean sync;
+    private MappedByteBuffer buffer;
+    private int position;
+
+    private AppendOnlyLog(FileChannel channel, boolean sync) {
+        this.channel = channel;
+        this.sync = sync;
+    }
+
+    /**
+     * @param replay recibe los datos de cada registro válido, en orden
+     * @param sync   fuerza cada registro a disco antes de volver de {@link #append}
+     */
+    public static AppendOnlyLog open(Path file, boolean sync, Consumer<byte[]> replay) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        AppendOnlyLog log = new AppendOnlyLog(channel, sync);
+        try {
+            log.map(Math.max(MIN_CAPACITY, channel.size()));
+            log.replay(replay);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return log;
+    }
+
+    private void map(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) throw new IOException("Embedded log is full (" + capacity + " bytes)");
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void replay(Consumer<byte[]> consumer) {
+        int pos = 0;
+        while (pos + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || length > buffer.capacity() - pos - HEADER) break;
+            byte[] data = new byte[length];
+            buffer.get(pos + HEADER, data);
+            if (crc(data) != buffer.getInt(pos + 4)) break;
+            consumer.accept(data);
+            pos += HEADER + length;
+        }
+        position = pos;
+        // lo que hubiera detrás (un registro a medias) deja de parecer un registro
+        if (pos + HEADER <= buffer.capacity()) buffer.putInt(pos, 0);
+    }
+
+    public synchronized void append(byte[] data) {
+        try {
+            ensureCapacity((long) position + HEADER + data.length + Integer.BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.put(position + HEADER, data);
+        buffer.putInt(position + 4, crc(data));
+        buffer.putInt(position + HEADER + data.length, 0);
+        // la longitud va la última: hasta entonces el registro no existe para quien reproduzca el log
+        buffer.putInt(position, data.length);
+        if (sync) buffer.force(position, HEADER + data.length);
+        position += HEADER + data.length;
+    }
+
+    private void ensureCapacity(long needed) throws IOException {
+        if (needed <= buffer.capacity()) return;
+        long capacity = buffer.capacity();
+        while (capacity < needed) capacity *= 2;
+        buffer.force();
+        map(Math.min(capacity, Integer.MAX_VALUE));
+        if (needed > buffer.capacity()) throw new IOException("Embedded log is full (" + needed + " bytes)");
+    }
+
+    // bytes ocupados por registros válidos
+    public synchronized int size() {
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static int crc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+}
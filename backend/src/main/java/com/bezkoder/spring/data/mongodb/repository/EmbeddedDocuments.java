@@ -0,0 +1,106 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Una "colección" del almacén embebido: el índice vive en memoria (ordenado por clave)
+ * y cada cambio se añade al log como 'P' + json del documento o 'D' + clave.
+ * Al arrancar se reproduce el log y el último registro de cada clave es el que vale.
+ */
+final class EmbeddedDocuments<T> {
+
+    private static final byte PUT = 'P';
+    private static final byte DELETE = 'D';
+
+    private final ConcurrentSkipListMap<String, T> byKey = new ConcurrentSkipListMap<>();
+    private final Class<T> type;
+    private final Function<T, String> key;
+    private final ObjectMapper mapper;
+    private final AppendOnlyLog log;
+
+    EmbeddedDocuments(Path file, boolean sync, Class<T> type, Function<T, String> key, ObjectMapper mapper)
+            throws IOException {
+        this.type = type;
+        this.key = key;
+        this.mapper = mapper;
+        this.log = AppendOnlyLog.open(file, sync, this::apply);
+    }
+
+    private void apply(byte[] record) {
+        byte[] body = Arrays.copyOfRange(record, 1, record.length);
+        if (record[0] == DELETE) {
+            byKey.remove(new String(body, StandardCharsets.UTF_8));
+            return;
+        }
+        try {
+            T doc = mapper.readValue(body, type);
+            byKey.put(key.apply(doc), doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt embedded record for " + type.getSimpleName(), e);
+        }
+    }
+
+    T get(String k) {
+        return byKey.get(k);
+    }
+
+    List<T> values() {
+        return new ArrayList<>(byKey.values());
+    }
+
+    NavigableMap<String, T> range(String from, String to) {
+        return byKey.subMap(from, true, to, true);
+    }
+
+    int size() {
+        return byKey.size();
+    }
+
+    // escrituras serializadas: el orden del log es el orden en que se aplican
+    synchronized void put(T doc) {
+        log.append(record(PUT, encode(doc)));
+        byKey.put(key.apply(doc), doc);
+    }
+
+    synchronized boolean putIfAbsent(T doc) {
+        if (byKey.containsKey(key.apply(doc))) return false;
+        put(doc);
+        return true;
+    }
+
+    synchronized void delete(String k) {
+        if (!byKey.containsKey(k)) return;
+        log.append(record(DELETE, k.getBytes(StandardCharsets.UTF_8)));
+        byKey.remove(k);
+    }
+
+    void close() throws IOException {
+        log.close();
+    }
+
+    private byte[] encode(T doc) {
+        try {
+            return mapper.writeValueAsBytes(doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] record(byte op, byte[] body) {
+        byte[] record = new byte[body.length + 1];
+        record[0] = op;
+        System.arraycopy(body, 0, record, 1, body.length);
+        return record;
+    }
+}
@@ -0,0 +1,90 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// items en <storage.embedded.dir>/items.log
+@Repository
+@ConditionalOnProperty(name = "storage.backend", havingValue = "embedded")
+public class EmbeddedItemStore implements ItemStore {
+
+    private final EmbeddedDocuments<Item> items;
+    // versión del catálogo sembrado, en un fichero aparte (una línea)
+    private final Path versionFile;
+
+    public EmbeddedItemStore(@Value("${storage.embedded.dir:data}") Path dir,
+                             @Value("${storage.embedded.sync:true}") boolean sync,
+                             ObjectMapper mapper) throws IOException {
+        this.items = new EmbeddedDocuments<>(dir.resolve("items.log"), sync, Item.class, Item::getId, mapper);
+        this.versionFile = dir.resolve("items.version");
+    }
+
+    @Override
+    public List<Item> findAll() {
+        return items.values();
+    }
+
+    @Override
+    public long count() {
+        return items.size();
+    }
+
+    @Override
+    public Item save(Item item) {
+        // como Mongo: sin id se le asigna uno
+        if (item.getId() == null) item.setId(new ObjectId().toHexString());
+        items.put(item);
+        return item;
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> toSave) {
+        List<Item> saved = new ArrayList<>(toSave.size());
+        for (Item item : toSave) saved.add(save(item));
+        return saved;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        items.delete(id);
+    }
+
+    @Override
+    public int seededVersion() {
+        try {
+            return Files.exists(versionFile) ? Integer.parseInt(Files.readString(versionFile).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void markSeeded(int version) {
+        try {
+            // se escribe aparte y se renombra: nunca queda un fichero a medias
+            Path tmp = versionFile.resolveSibling("items.version.tmp");
+            Files.writeString(tmp, Integer.toString(version));
+            Files.move(tmp, versionFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        items.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// soluciones en <storage.embedded.dir>/solution_grids.log, indexadas en memoria por fecha (única, como en Mongo)
+@Repository
+@ConditionalOnProperty(name = "storage.backend", havingValue = "embedded")
+public class EmbeddedSolutionGridStore implements SolutionGridStore {
+
+    private final EmbeddedDocuments<SolutionGrid> grids;
+
+    public EmbeddedSolutionGridStore(@Value("${storage.embedded.dir:data}") Path dir,
+                                     @Value("${storage.embedded.sync:true}") boolean sync,
+                                     ObjectMapper mapper) throws IOException {
+        this.grids = new EmbeddedDocuments<>(dir.resolve("solution_grids.log"), sync,
+                SolutionGrid.class, SolutionGrid::getDate, mapper);
+    }
+
+    @Override
+    public Optional<SolutionGrid> findByDate(String date) {
+        return Optional.ofNullable(grids.get(date));
+    }
+
+    @Override
+    public SolutionGrid insert(SolutionGrid grid) {
+        if (grid.getId() == null) grid.setId(new ObjectId().toHexString());
+        if (!grids.putIfAbsent(grid)) {
+            throw new DuplicateKeyException("Solution grid for " + grid.getDate() + " already exists");
+        }
+        return grid;
+    }
+
+    @Override
+    public int insertAll(List<SolutionGrid> toInsert) {
+        int inserted = 0;
+        for (SolutionGrid grid : toInsert) {
+            if (grid.getId() == null) grid.setId(new ObjectId().toHexString());
+            if (grids.putIfAbsent(grid)) inserted++;
+        }
+        return inserted;
+    }
+
+    @Override
+    public Set<String> datesBetween(String from, String to) {
+        return new HashSet<>(grids.range(from, to).keySet());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        grids.close();
+    }
+}
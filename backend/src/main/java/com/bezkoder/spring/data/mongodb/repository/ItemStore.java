@@ -0,0 +1,27 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+
+import java.util.List;
+
+/**
+ * Acceso a los items independiente del backend (storage.backend): Mongo o el almacén embebido.
+ */
+public interface ItemStore {
+
+    List<Item> findAll();
+
+    long count();
+
+    Item save(Item item);
+
+    // upsert de todos (en Mongo en una sola operación en bloque)
+    List<Item> saveAll(List<Item> items);
+
+    void deleteById(String id);
+
+    // versión del catálogo de serie que se ha sembrado (0 si nunca)
+    int seededVersion();
+
+    void markSeeded(int version);
+}
@@ -0,0 +1,76 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@ConditionalOnProperty(name = "storage.backend", havingValue = "mongo", matchIfMissing = true)
+public class MongoItemStore implements ItemStore {
+
+    // un documento por catálogo sembrado: {_id: "items", version: N}
+    private static final String VERSIONS = "catalog_versions";
+    private static final String CATALOG = "items";
+
+    private final ItemRepository repository;
+    private final MongoTemplate mongoTemplate;
+
+    public MongoItemStore(ItemRepository repository, MongoTemplate mongoTemplate) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Item> findAll() {
+        return repository.findAll();
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public Item save(Item item) {
+        return repository.save(item);
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        // repository.saveAll hace un save (una ida y vuelta) por item cuando ya traen id
+        if (items.isEmpty()) return items;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Item.class);
+        for (Item item : items) {
+            if (item.getId() == null) bulk.insert(item);
+            else bulk.replaceOne(Query.query(where("_id").is(item.getId())), item, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+        return items;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        repository.deleteById(id);
+    }
+
+    @Override
+    public int seededVersion() {
+        Document doc = mongoTemplate.findById(CATALOG, Document.class, VERSIONS);
+        return doc == null ? 0 : doc.getInteger("version", 0);
+    }
+
+    @Override
+    public void markSeeded(int version) {
+        mongoTemplate.upsert(Query.query(where("_id").is(CATALOG)), Update.update("version", version), VERSIONS);
+    }
+}
@@ -0,0 +1,72 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.mongodb.bulk.BulkWriteResult;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+@ConditionalOnProperty(name = "storage.backend", havingValue = "mongo", matchIfMissing = true)
+public class MongoSolutionGridStore implements SolutionGridStore {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final SolutionGridRepository repository;
+    private final MongoTemplate mongoTemplate;
+
+    public MongoSolutionGridStore(SolutionGridRepository repository, MongoTemplate mongoTemplate) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<SolutionGrid> findByDate(String date) {
+        return repository.findByDate(date);
+    }
+
+    @Override
+    public SolutionGrid insert(SolutionGrid grid) {
+        return repository.insert(grid);
+    }
+
+    @Override
+    public int insertAll(List<SolutionGrid> grids) {
+        int inserted = 0;
+        for (int i = 0; i < grids.size(); i += BATCH_SIZE) {
+            inserted += insertBatch(grids.subList(i, Math.min(i + BATCH_SIZE, grids.size())));
+        }
+        return inserted;
+    }
+
+    private int insertBatch(List<SolutionGrid> batch) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SolutionGrid.class);
+        bulk.insert(batch);
+        try {
+            return bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            // duplicados: otro nodo (o una petición) creó ese día mientras tanto; el resto sí entra
+            BulkWriteResult partial = e.getResult();
+            return partial.getInsertedCount();
+        }
+    }
+
+    @Override
+    public Set<String> datesBetween(String from, String to) {
+        Query query = Query.query(where("date").gte(from).lte(to));
+        query.fields().include("date");
+        Set<String> dates = new HashSet<>();
+        for (SolutionGrid sg : mongoTemplate.find(query, SolutionGrid.class)) dates.add(sg.getDate());
+        return dates;
+    }
+}
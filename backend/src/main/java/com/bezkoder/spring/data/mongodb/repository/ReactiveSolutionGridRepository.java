@@ -0,0 +1,10 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+// misma colección que SolutionGridRepository, pero con el driver reactivo (guess.pipeline=reactive)
+public interface ReactiveSolutionGridRepository extends ReactiveMongoRepository<SolutionGrid, String> {
+    Mono<SolutionGrid> findByDate(String date);
+}
@@ -0,0 +1,136 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forma compacta de un SolutionGrid en Mongo: en vez de dos listas de ids repetidos con nulls,
+ * una paleta con los ids distintos ('items') y dos arrays de bytes con un índice por casilla
+ * (0 = vacía, k = items[k-1]): 'main' para las main cells y 'cover' para lo que ocupa cada casilla.
+ * Con más de 254 ids distintos cada casilla usa dos bytes.
+ *
+ * Los documentos antiguos (mainCells/cells como listas, sin 'cover') se siguen leyendo tal cual;
+ * LegacyGridMigration los reescribe en el formato nuevo.
+ */
+public final class SolutionGridConverters {
+
+    static final String PALETTE = "items";
+    static final String MAIN = "main";
+    static final String COVER = "cover";
+
+    private SolutionGridConverters() {}
+
+    public static List<Converter<?, ?>> all() {
+        return List.of(new GridWriter(), new GridReader());
+    }
+
+    @WritingConverter
+    static final class GridWriter implements Converter<SolutionGrid, Document> {
+        @Override
+        public Document convert(SolutionGrid sg) {
+            Document doc = new Document();
+            if (sg.getId() != null) doc.put("_id", ObjectId.isValid(sg.getId()) ? new ObjectId(sg.getId()) : sg.getId());
+            doc.put("date", sg.getDate());
+            doc.put("width", sg.getWidth());
+            doc.put("height", sg.getHeight());
+            if (sg.getSolutionCount() != null) doc.put("solutionCount", sg.getSolutionCount());
+
+            int size = sg.getWidth() * sg.getHeight();
+            List<String> palette = new ArrayList<>();
+            Map<String, Integer> index = new HashMap<>();
+            // primero las main cells: así el orden de la paleta es el de los items en el grid
+            collect(sg.getMainCells(), size, palette, index);
+            collect(sg.getCells(), size, palette, index);
+            int stride = palette.size() < 255 ? 1 : 2;
+            doc.put(PALETTE, palette);
+            doc.put(MAIN, new Binary(pack(sg.getMainCells(), size, index, stride)));
+            // sin 'cells' (documento a medio reparar) no se escribe 'cover' y sigue contando como antiguo
+            if (sg.getCells() != null) doc.put(COVER, new Binary(pack(sg.getCells(), size, index, stride)));
+            return doc;
+        }
+    }
+
+    @ReadingConverter
+    static final class GridReader implements Converter<Document, SolutionGrid> {
+        @Override
+        public SolutionGrid convert(Document doc) {
+            // sin el constructor por defecto: no hace falta rellenar listas que se van a sustituir
+            SolutionGrid sg = new SolutionGrid(doc.getString("date"), null, null);
+            Object id = doc.get("_id");
+            if (id != null) sg.setId(id.toString());
+            sg.setWidth(intValue(doc.get("width")));
+            sg.setHeight(intValue(doc.get("height")));
+            Object count = doc.get("solutionCount");
+            if (count instanceof Number) sg.setSolutionCount(((Number) count).longValue());
+
+            int size = sg.getWidth() * sg.getHeight();
+            Object cover = doc.get(COVER);
+            if (cover != null) {
+                List<String> palette = doc.getList(PALETTE, String.class, List.of());
+                sg.setMainCells(unpack(bytes(doc.get(MAIN)), size, palette));
+                sg.setCells(unpack(bytes(cover), size, palette));
+            } else {
+                sg.setMainCells(doc.getList("mainCells", String.class));
+                sg.setCells(doc.getList("cells", String.class));
+            }
+            return sg;
+        }
+    }
+
+    private static void collect(List<String> cells, int size, List<String> palette, Map<String, Integer> index) {
+        if (cells == null) return;
+        for (int i = 0; i < size && i < cells.size(); i++) {
+            String id = cells.get(i);
+            if (id != null && index.putIfAbsent(id, palette.size() + 1) == null) palette.add(id);
+        }
+    }
+
+    static byte[] pack(List<String> cells, int size, Map<String, Integer> index, int stride) {
+        byte[] packed = new byte[size * stride];
+        for (int i = 0; cells != null && i < size && i < cells.size(); i++) {
+            String id = cells.get(i);
+            if (id == null) continue;
+            int v = index.get(id);
+            if (stride == 1) {
+                packed[i] = (byte) v;
+            } else {
+                packed[2 * i] = (byte) (v >>> 8);
+                packed[2 * i + 1] = (byte) v;
+            }
+        }
+        return packed;
+    }
+
+    // las casillas con el mismo item comparten el String de la paleta
+    static List<String> unpack(byte[] packed, int size, List<String> palette) {
+        List<String> cells = new ArrayList<>(size);
+        int stride = size > 0 && packed.length >= 2 * size ? 2 : 1;
+        for (int i = 0; i < size; i++) {
+            int v = 0;
+            if (stride == 1 && i < packed.length) v = packed[i] & 0xFF;
+            else if (stride == 2) v = (packed[2 * i] & 0xFF) << 8 | (packed[2 * i + 1] & 0xFF);
+            cells.add(v == 0 || v > palette.size() ? null : palette.get(v - 1));
+        }
+        return cells;
+    }
+
+    private static byte[] bytes(Object value) {
+        if (value instanceof Binary) return ((Binary) value).getData();
+        if (value instanceof byte[]) return (byte[]) value;
+        return new byte[0];
+    }
+
+    private static int intValue(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+}
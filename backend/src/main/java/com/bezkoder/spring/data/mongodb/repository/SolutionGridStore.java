@@ -0,0 +1,24 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Acceso a las soluciones diarias independiente del backend (storage.backend): Mongo o el almacén embebido.
+ */
+public interface SolutionGridStore {
+
+    Optional<SolutionGrid> findByDate(String date);
+
+    // lanza DuplicateKeyException si ya hay una solución para ese día
+    SolutionGrid insert(SolutionGrid grid);
+
+    // inserta las que no choquen con un día existente; devuelve cuántas entraron
+    int insertAll(List<SolutionGrid> grids);
+
+    // días (yyyy-MM-dd) que ya tienen solución, ambos extremos incluidos
+    Set<String> datesBetween(String from, String to);
+}
@@ -0,0 +1,122 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.dto.BatchGuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.BatchGuessResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Re-puntúa guesses en NDJSON (uno por línea) y escribe un resultado por línea según va leyendo:
+ * ni la entrada ni la salida se guardan enteras en memoria. Cada fecha se resuelve una sola vez.
+ * Sólo días que ya han salido en alguna zona: los posteriores se rechazan aunque su solución ya exista.
+ * Las líneas sin fecha van al día de hoy en la zona de la petición (X-Puzzle-Zone, Madrid si no viene).
+ */
+@Service
+public class BatchGuessScorer {
+
+    // fechas distintas que se recuerdan durante un batch (los archivos suelen ir ordenados por fecha)
+    private static final int MAX_DATES = 4096;
+    private static final int FLUSH_EVERY = 256;
+
+    private final SolutionGridService solutionGridService;
+    private final PuzzleCalendar calendar;
+    private final ObjectReader reader;
+    private final ObjectMapper mapper;
+
+    public BatchGuessScorer(SolutionGridService solutionGridService, PuzzleCalendar calendar, ObjectMapper mapper) {
+        this.solutionGridService = solutionGridService;
+        this.calendar = calendar;
+        this.mapper = mapper;
+        this.reader = mapper.readerFor(BatchGuessRequest.class);
+    }
+
+    // devuelve el número de líneas procesadas
+    public long score(InputStream in, OutputStream out, ZoneId zone) throws IOException {
+        Map<String, Optional<CompiledSolution>> solutions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<CompiledSolution>> eldest) {
+                return size() > MAX_DATES;
+            }
+        };
+        String today = calendar.today(zone).toString();
+        // el día más adelantado que ya se juega en alguna zona (los "mañana" de liveDates aún no han salido)
+        LocalDate newest = latestPlayable();
+
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long lineNo = 0;
+        long written = 0;
+        try (SequenceWriter writer = mapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                writer.write(scoreLine(lineNo, line, today, newest, solutions));
+                // flush periódico: el cliente va recibiendo resultados mientras sigue enviando
+                if (++written % FLUSH_EVERY == 0) writer.flush();
+            }
+            writer.flush();
+            if (written > 0) out.write('\n');
+        }
+        return lineNo;
+    }
+
+    private LocalDate latestPlayable() {
+        LocalDate newest = calendar.today();
+        for (ZoneId zone : calendar.activeZones()) {
+            LocalDate day = calendar.today(zone);
+            if (day.isAfter(newest)) newest = day;
+        }
+        return newest;
+    }
+
+    private BatchGuessResult scoreLine(long lineNo, String line, String today, LocalDate newest,
+                                       Map<String, Optional<CompiledSolution>> solutions) {
+        BatchGuessRequest request;
+        try {
+            request = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return BatchGuessResult.error(lineNo, null, "invalid json");
+        }
+        // una línea 'null' es JSON válido pero no es un guess
+        if (request == null) return BatchGuessResult.error(lineNo, null, "invalid json");
+        String date = request.getDate() == null ? today : request.getDate();
+
+        Optional<CompiledSolution> solution = solutions.get(date);
+        if (solution == null) {
+            LocalDate day;
+            try {
+                day = LocalDate.parse(date);
+            } catch (DateTimeParseException e) {
+                return BatchGuessResult.error(lineNo, date, "invalid date");
+            }
+            // aunque ya esté generada, la solución de un día que no ha salido no se deja consultar
+            if (day.isAfter(newest)) return BatchGuessResult.error(lineNo, date, "date not released");
+            solution = date.equals(today)
+                    ? Optional.of(solutionGridService.solutionForDate(day))
+                    : solutionGridService.existingSolutionForDate(day);
+            solutions.put(date, solution);
+        }
+
+        if (solution.isEmpty()) return BatchGuessResult.error(lineNo, date, "no solution for date");
+        if (request.getGrid() == null || request.getGrid().size() != solution.get().size()) {
+            return BatchGuessResult.error(lineNo, date, "invalid grid");
+        }
+        return new BatchGuessResult(lineNo, date, GuessEvaluator.evaluate(solution.get(), request));
+    }
+}
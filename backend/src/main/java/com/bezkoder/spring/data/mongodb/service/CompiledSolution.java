@@ -0,0 +1,84 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Forma compilada (inmutable) de un {@link SolutionGrid}: se construye una vez por solución
+ * y permite puntuar un guess sin recorrer las listas de ids en cada petición.
+ */
+public final class CompiledSolution {
+
+    private final SolutionGrid grid;
+    private final int width;
+    private final int size;
+    // ordinal del item cuya main cell está en cada casilla, -1 si no hay
+    private final int[] mainOrdinals;
+    // por ordinal: id del item, bitmask (un long por cada 64 casillas) de lo que cubre y esas casillas como lista
+    private final String[] itemIds;
+    private final long[][] coverageMasks;
+    private final List<List<Integer>> coveredIndices;
+
+    private CompiledSolution(SolutionGrid grid, int[] mainOrdinals, String[] itemIds, long[][] coverageMasks) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.size = grid.getWidth() * grid.getHeight();
+        this.mainOrdinals = mainOrdinals;
+        this.itemIds = itemIds;
+        this.coverageMasks = coverageMasks;
+        List<List<Integer>> covered = new ArrayList<>(itemIds.length);
+        for (long[] mask : coverageMasks) {
+            List<Integer> indices = new ArrayList<>();
+            for (int w = 0; w < mask.length; w++) {
+                for (long m = mask[w]; m != 0; m &= m - 1) indices.add(w * Long.SIZE + Long.numberOfTrailingZeros(m));
+            }
+            covered.add(Collections.unmodifiableList(indices));
+        }
+        this.coveredIndices = covered;
+    }
+
+    public static CompiledSolution compile(SolutionGrid grid) {
+        int size = grid.getWidth() * grid.getHeight();
+        List<String> main = grid.getMainCells();
+        List<String> cells = grid.getCells();
+
+        int[] mainOrdinals = new int[size];
+        Arrays.fill(mainOrdinals, -1);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < size && main != null && i < main.size(); i++) {
+            String id = main.get(i);
+            if (id == null) continue;
+            // igual que antes: cada main cell cuenta como un item, aunque el id se repita
+            mainOrdinals[i] = ids.size();
+            ids.add(id);
+        }
+
+        // todas las casillas ocupadas por ese id (como el escaneo de antes, pero una sola vez)
+        int words = (size + Long.SIZE - 1) / Long.SIZE;
+        long[][] masks = new long[ids.size()][words];
+        for (int j = 0; cells != null && j < size && j < cells.size(); j++) {
+            String id = cells.get(j);
+            if (id == null) continue;
+            for (int o = 0; o < ids.size(); o++) {
+                if (ids.get(o).equals(id)) masks[o][j / Long.SIZE] |= 1L << (j % Long.SIZE);
+            }
+        }
+        return new CompiledSolution(grid, mainOrdinals, ids.toArray(new String[0]), masks);
+    }
+
+    public SolutionGrid getGrid() { return grid; }
+    public String getDate() { return grid.getDate(); }
+
+    public int size() { return size; }
+    public int width() { return width; }
+    public int itemCount() { return itemIds.length; }
+
+    public int mainOrdinal(int index) { return mainOrdinals[index]; }
+    public String itemId(int ordinal) { return itemIds[ordinal]; }
+    public long[] coverageMask(int ordinal) { return coverageMasks[ordinal].clone(); }
+    public List<Integer> coveredIndices(int ordinal) { return coveredIndices.get(ordinal); }
+}
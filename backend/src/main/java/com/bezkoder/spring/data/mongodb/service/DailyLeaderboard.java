@@ -0,0 +1,268 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clasificación de un día de puzzle: menos intentos y, a igualdad, menos segundos desde el primer intento.
+ * Sin locks: cada resolución es un put en un skip list acotado (el top) y unas sumas atómicas en un histograma.
+ *
+ * El rango de cualquier puntuación se saca del histograma sin recorrer a nadie: un árbol de Fenwick por
+ * número de intentos, y dentro de cada número de intentos otro por minuto más los segundos de ese minuto.
+ * Las filas se crean al primer jugador con ese número de intentos.
+ */
+public final class DailyLeaderboard {
+
+    public static final int MAX_ATTEMPTS = 4095;
+    // un día con cambio de hora puede tener 25 horas
+    public static final int MAX_SECONDS = 25 * 3600 - 1;
+    private static final int MINUTES = MAX_SECONDS / 60 + 1;
+
+    private final String date;
+    private final int topSize;
+
+    // clave: intentos (12 bits) | segundos (17) | orden de llegada (34) -> jugador
+    private final ConcurrentSkipListMap<Long, Long> top = new ConcurrentSkipListMap<>();
+    private final AtomicInteger topCount = new AtomicInteger();
+    private final AtomicLong arrivals = new AtomicLong();
+
+    private final AtomicLongArray byAttempts = new AtomicLongArray(MAX_ATTEMPTS + 2);
+    private final AtomicReferenceArray<Row> rows = new AtomicReferenceArray<>(MAX_ATTEMPTS + 1);
+    private final LongAdder solvers = new LongAdder();
+
+    public DailyLeaderboard(String date, int topSize) {
+        this.date = date;
+        this.topSize = topSize;
+    }
+
+    public static final class Entry {
+        private final long player;
+        private final int attempts;
+        private final int seconds;
+        private final long rank;
+
+        Entry(long player, int attempts, int seconds, long rank) {
+            this.player = player;
+            this.attempts = attempts;
+            this.seconds = seconds;
+            this.rank = rank;
+        }
+
+        public long getPlayer() { return player; }
+        public int getAttempts() { return attempts; }
+        public int getSeconds() { return seconds; }
+        // los empatados comparten puesto
+        public long getRank() { return rank; }
+    }
+
+    // entrada leída de un snapshot (el puesto se recalcula)
+    public static Entry entry(long player, int attempts, int seconds) {
+        return new Entry(player, attempts, seconds, 0);
+    }
+
+    // puntuación compacta (nunca 0) que guarda PlayerTable para poder preguntar luego por el puesto
+    public static int score(int attempts, int seconds) {
+        return clampAttempts(attempts) << 17 | clampSeconds(seconds);
+    }
+
+    public static int attempts(int score) { return score >>> 17; }
+    public static int seconds(int score) { return score & ((1 << 17) - 1); }
+
+    public String getDate() { return date; }
+    public long solvers() { return solvers.sum(); }
+
+    // una resolución por jugador y día (eso lo garantiza PlayerSessions)
+    public void submit(long player, int attempts, int seconds) {
+        int a = clampAttempts(attempts);
+        int s = clampSeconds(seconds);
+        count(a, s, 1);
+        offerTop(topKey(a, s), player);
+    }
+
+    // 1 + cuántos lo han hecho estrictamente mejor
+    public long rank(int attempts, int seconds) {
+        int a = clampAttempts(attempts);
+        int s = clampSeconds(seconds);
+        long better = prefix(byAttempts, a);
+        Row row = rows.get(a);
+        if (row != null) better += row.before(s);
+        return better + 1;
+    }
+
+    public List<Entry> top(int n) {
+        List<Entry> out = new ArrayList<>(Math.min(n, topSize));
+        for (Map.Entry<Long, Long> e : top.entrySet()) {
+            if (out.size() >= n) break;
+            int a = (int) (e.getKey() >>> 51);
+            int s = (int) (e.getKey() >>> 34 & ((1 << 17) - 1));
+            out.add(new Entry(e.getValue(), a, s, rank(a, s)));
+        }
+        return out;
+    }
+
+    private long topKey(int attempts, int seconds) {
+        return (long) attempts << 51 | (long) seconds << 34 | (arrivals.getAndIncrement() & ((1L << 34) - 1));
+    }
+
+    private void offerTop(long key, long player) {
+        // lleno y peor que el último: ni se toca el skip list (lo normal cuando el día ya está avanzado)
+        if (topCount.get() >= topSize) {
+            Map.Entry<Long, Long> last = top.lastEntry();
+            if (last != null && key > last.getKey()) return;
+        }
+        top.put(key, player);
+        if (topCount.incrementAndGet() > topSize && top.pollLastEntry() != null) {
+            topCount.decrementAndGet();
+        }
+    }
+
+    private void count(int attempts, int seconds, int n) {
+        fenwickAdd(byAttempts, attempts, n);
+        row(attempts).add(seconds, n);
+        solvers.add(n);
+    }
+
+    private Row row(int attempts) {
+        Row row = rows.get(attempts);
+        if (row == null) {
+            rows.compareAndSet(attempts, null, new Row());
+            row = rows.get(attempts);
+        }
+        return row;
+    }
+
+    // --- snapshot ---
+
+    /**
+     * Histograma en binario: por cada número de intentos con jugadores, varint(intentos), varint(segundos distintos)
+     * y pares varint(salto de segundos), varint(jugadores).
+     */
+    public byte[] encodeCounts() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int a = 0; a <= MAX_ATTEMPTS; a++) {
+            Row row = rows.get(a);
+            if (row == null) continue;
+            List<int[]> cells = row.nonZero();
+            if (cells.isEmpty()) continue;
+            writeVarint(out, a);
+            writeVarint(out, cells.size());
+            int previous = 0;
+            for (int[] cell : cells) {
+                writeVarint(out, cell[0] - previous);
+                writeVarint(out, cell[1]);
+                previous = cell[0];
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // se suma a lo que ya haya (lo que llegue mientras se restaura no se pierde)
+    public void restore(byte[] counts, List<Entry> savedTop) {
+        ByteBuffer in = ByteBuffer.wrap(counts);
+        while (in.hasRemaining()) {
+            int a = readVarint(in);
+            int cells = readVarint(in);
+            int second = 0;
+            for (int i = 0; i < cells; i++) {
+                second += readVarint(in);
+                count(a, second, readVarint(in));
+            }
+        }
+        // ya vienen ordenados: el orden de llegada se vuelve a numerar en ese orden
+        for (Entry e : savedTop) {
+            int a = clampAttempts(e.getAttempts());
+            int s = clampSeconds(e.getSeconds());
+            offerTop(topKey(a, s), e.getPlayer());
+        }
+    }
+
+    // --- histograma ---
+
+    // jugadores con un número de intentos, por segundo: Fenwick por minuto y los 60 segundos de cada minuto aparte
+    private static final class Row {
+        private final AtomicLongArray minutes = new AtomicLongArray(MINUTES + 1);
+        private final AtomicReferenceArray<AtomicIntegerArray> seconds = new AtomicReferenceArray<>(MINUTES);
+
+        void add(int second, int n) {
+            int minute = second / 60;
+            fenwickAdd(minutes, minute, n);
+            AtomicIntegerArray inMinute = seconds.get(minute);
+            if (inMinute == null) {
+                seconds.compareAndSet(minute, null, new AtomicIntegerArray(60));
+                inMinute = seconds.get(minute);
+            }
+            inMinute.addAndGet(second % 60, n);
+        }
+
+        // jugadores con menos segundos que second
+        long before(int second) {
+            int minute = second / 60;
+            long total = prefix(minutes, minute);
+            AtomicIntegerArray inMinute = seconds.get(minute);
+            if (inMinute != null) {
+                for (int s = 0; s < second % 60; s++) total += inMinute.get(s);
+            }
+            return total;
+        }
+
+        List<int[]> nonZero() {
+            List<int[]> out = new ArrayList<>();
+            for (int m = 0; m < MINUTES; m++) {
+                AtomicIntegerArray inMinute = seconds.get(m);
+                if (inMinute == null) continue;
+                for (int s = 0; s < 60; s++) {
+                    int n = inMinute.get(s);
+                    if (n > 0) out.add(new int[]{m * 60 + s, n});
+                }
+            }
+            return out;
+        }
+    }
+
+    // árbol de Fenwick: posición i en tree[i + 1]
+    private static void fenwickAdd(AtomicLongArray tree, int index, long n) {
+        for (int i = index + 1; i < tree.length(); i += i & -i) tree.addAndGet(i, n);
+    }
+
+    // suma de las posiciones [0, index)
+    private static long prefix(AtomicLongArray tree, int index) {
+        long total = 0;
+        for (int i = index; i > 0; i -= i & -i) total += tree.get(i);
+        return total;
+    }
+
+    private static int clampAttempts(int attempts) {
+        return Math.max(1, Math.min(attempts, MAX_ATTEMPTS));
+    }
+
+    private static int clampSeconds(int seconds) {
+        return Math.max(0, Math.min(seconds, MAX_SECONDS));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+}
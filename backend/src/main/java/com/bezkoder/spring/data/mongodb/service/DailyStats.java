@@ -0,0 +1,59 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// contadores en memoria de un día de puzzle; LongAdder para que muchos hilos sumen sin pelearse
+public final class DailyStats {
+
+    private final String date;
+    private final int cells;
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    // itemId -> veces que se ha colocado como main cell en cada casilla
+    private final ConcurrentHashMap<String, LongAdder[]> heatmap = new ConcurrentHashMap<>();
+
+    public DailyStats(String date, int cells) {
+        this.date = date;
+        this.cells = cells;
+    }
+
+    public void attempt(boolean allCorrect) {
+        attempts.increment();
+        if (allCorrect) solved.increment();
+    }
+
+    public void placed(String itemId, int cell) {
+        if (cell < 0 || cell >= cells) return;
+        heatmap.computeIfAbsent(itemId, id -> newCounters())[cell].increment();
+    }
+
+    private LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[cells];
+        for (int i = 0; i < cells; i++) counters[i] = new LongAdder();
+        return counters;
+    }
+
+    public String getDate() { return date; }
+
+    public Map<String, Object> snapshot() {
+        long a = attempts.sum();
+        long s = solved.sum();
+        Map<String, long[]> cellsByItem = new LinkedHashMap<>();
+        heatmap.forEach((id, counters) -> {
+            long[] values = new long[counters.length];
+            for (int i = 0; i < counters.length; i++) values[i] = counters[i].sum();
+            cellsByItem.put(id, values);
+        });
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("date", date);
+        out.put("attempts", a);
+        out.put("solved", s);
+        out.put("solveRate", a == 0 ? 0.0 : (double) s / a);
+        out.put("heatmap", cellsByItem);
+        return out;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// sustituto local: busca en icons.source-dir un fichero con el mismo nombre que el final de la URL
+@Component
+@ConditionalOnProperty(name = "icons.source", havingValue = "directory")
+public class DirectoryIconFetcher implements IconFetcher {
+
+    private final Path dir;
+
+    public DirectoryIconFetcher(@Value("${icons.source-dir:icons}") Path dir) {
+        this.dir = dir;
+    }
+
+    @Override
+    public byte[] fetch(String url) throws IOException {
+        String path = URI.create(url).getPath();
+        String name = path == null ? url : path.substring(path.lastIndexOf('/') + 1);
+        return Files.readAllBytes(dir.resolve(name));
+    }
+}
@@ -0,0 +1,35 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse.CorrectCell;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// puntúa un guess contra una solución compilada (sin escanear el grid de la solución)
+public final class GuessEvaluator {
+
+    private GuessEvaluator() {}
+
+    public static GuessResponse evaluate(CompiledSolution solution, GuessRequest request) {
+        List<GuessRequest.CellDTO> grid = request.getGrid();
+        List<CorrectCell> correctCells = new ArrayList<>(solution.itemCount());
+        int width = solution.width();
+        int n = Math.min(grid.size(), solution.size());  // el controller ya valida que coincidan
+
+        for (int i = 0; i < n; i++) {
+            int ordinal = solution.mainOrdinal(i);
+            if (ordinal < 0) continue;
+            GuessRequest.CellDTO cell = grid.get(i);
+            // sólo consideramos comparación si el cliente indica isMainCell (por seguridad)
+            if (cell == null || !Boolean.TRUE.equals(cell.getIsMainCell())) continue;
+            String itemId = solution.itemId(ordinal);
+            if (!itemId.equals(cell.getId())) continue;
+            correctCells.add(new CorrectCell(i, i / width, i % width, itemId, solution.coveredIndices(ordinal)));
+        }
+
+        boolean allCorrect = correctCells.size() == solution.itemCount();
+        return new GuessResponse(allCorrect, correctCells);
+    }
+}
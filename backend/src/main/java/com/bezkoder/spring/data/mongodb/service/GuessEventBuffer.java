@@ -0,0 +1,83 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.GuessEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cola acotada y sin locks entre el endpoint de guess y el escritor en segundo plano.
+ * Si está llena (Mongo lento) el evento se descarta y se cuenta: nunca bloquea la petición.
+ */
+@Component
+public class GuessEventBuffer {
+
+    private final ConcurrentLinkedQueue<GuessEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final double sampleRate;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+
+    public GuessEventBuffer(@Value("${stats.events.capacity:100000}") int capacity,
+                            @Value("${stats.events.sample-rate:1.0}") double sampleRate,
+                            MeterRegistry registry) {
+        this.capacity = capacity;
+        this.sampleRate = sampleRate;
+        FunctionCounter.builder("tarkov.guess.events", accepted, LongAdder::sum).tag("outcome", "accepted").register(registry);
+        FunctionCounter.builder("tarkov.guess.events", dropped, LongAdder::sum).tag("outcome", "dropped").register(registry);
+        FunctionCounter.builder("tarkov.guess.events", sampledOut, LongAdder::sum).tag("outcome", "sampled_out").register(registry);
+        Gauge.builder("tarkov.guess.events.buffered", size, AtomicInteger::get).register(registry);
+    }
+
+    // si este intento entra en la muestra (stats.events.sample-rate); se decide antes de construir el evento
+    public boolean sample() {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // true si el evento se encoló; el muestreo ya lo ha hecho sample()
+    public boolean offer(GuessEvent event) {
+        // reservamos hueco antes de encolar para no pasar nunca de la capacidad
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(event);
+        accepted.increment();
+        return true;
+    }
+
+    // saca hasta max eventos en 'into'; devuelve cuántos
+    public int drain(List<GuessEvent> into, int max) {
+        int n = 0;
+        GuessEvent event;
+        while (n < max && (event = queue.poll()) != null) {
+            into.add(event);
+            n++;
+        }
+        size.addAndGet(-n);
+        return n;
+    }
+
+    public void recordDropped(long n) { dropped.add(n); }
+
+    public int getBuffered() { return size.get(); }
+    public long getAccepted() { return accepted.sum(); }
+    public long getDropped() { return dropped.sum(); }
+    public long getSampledOut() { return sampledOut.sum(); }
+}
@@ -0,0 +1,53 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.GuessEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// vacía el buffer de eventos a Mongo con inserts en bloque
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "mongo", matchIfMissing = true)
+public class GuessEventWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GuessEventWriter.class);
+
+    private final GuessEventBuffer buffer;
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final LongAdder written = new LongAdder();
+
+    public GuessEventWriter(GuessEventBuffer buffer, MongoTemplate mongoTemplate,
+                            @Value("${stats.events.batch-size:1000}") int batchSize) {
+        this.buffer = buffer;
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${stats.events.flush-ms:1000}")
+    public void flush() {
+        List<GuessEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drain(batch, batchSize) > 0) {
+            try {
+                mongoTemplate.insert(batch, GuessEvent.class);
+                written.add(batch.size());
+            } catch (RuntimeException e) {
+                // no reintentamos: la analítica no debe acumular memoria si Mongo no responde
+                buffer.recordDropped(batch.size());
+                log.warn("Dropped {} guess events: {}", batch.size(), e.getMessage());
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    public long getWritten() { return written.sum(); }
+}
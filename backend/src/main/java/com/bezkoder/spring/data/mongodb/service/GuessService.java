@@ -0,0 +1,76 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+// lo común a los dos pipelines de /api/guess (bloqueante y reactivo): validar, puntuar, medir y registrar
+@Service
+public class GuessService {
+
+    private final PuzzleMetrics metrics;
+    private final GuessStatsService statsService;
+    private final PlayerSessions sessions;
+    private final boolean requireToken;
+
+    public GuessService(PuzzleMetrics metrics, GuessStatsService statsService, PlayerSessions sessions,
+                        @Value("${players.require-token:false}") boolean requireToken) {
+        this.metrics = metrics;
+        this.statsService = statsService;
+        this.sessions = sessions;
+        this.requireToken = requireToken;
+    }
+
+    public static final class Result {
+        public enum Status { SCORED, INVALID, OUT_OF_ATTEMPTS }
+
+        private static final Result INVALID = new Result(Status.INVALID, null);
+        private static final Result OUT_OF_ATTEMPTS = new Result(Status.OUT_OF_ATTEMPTS, null);
+
+        private final Status status;
+        private final GuessResponse response;
+
+        private Result(Status status, GuessResponse response) {
+            this.status = status;
+            this.response = response;
+        }
+
+        public Status getStatus() { return status; }
+        // sólo con SCORED
+        public GuessResponse getResponse() { return response; }
+    }
+
+    // validación previa a buscar la solución
+    public boolean accepts(GuessRequest request, String playerToken) {
+        boolean anonymous = playerToken == null || playerToken.isBlank();
+        if (request != null && request.getGrid() != null && !(requireToken && anonymous)) return true;
+        metrics.guessRejected();
+        return false;
+    }
+
+    /**
+     * Puntúa el guess contra la solución del día de la zona del jugador. Con token de jugador cuenta el intento (y lo rechaza si ya no le quedan);
+     * sin token se puntúa igual que siempre, salvo con players.require-token=true.
+     */
+    public Result evaluate(long startNanos, LocalDate day, ZoneId zone, CompiledSolution solution,
+                           GuessRequest request, String playerToken) {
+        if (request.getGrid().size() != solution.size()) {
+            metrics.guessRejected();
+            return Result.INVALID;
+        }
+        long player = playerToken == null || playerToken.isBlank() ? 0 : PlayerSessions.key(playerToken);
+        if (player != 0 && !sessions.tryAttempt(player, day, zone)) {
+            return Result.OUT_OF_ATTEMPTS;
+        }
+
+        GuessResponse resp = GuessEvaluator.evaluate(solution, request);
+        statsService.record(day.toString(), solution, request, resp);
+        if (player != 0) sessions.recordResult(player, day, zone, resp.getCorrectCells().size(), resp.isCorrect());
+        metrics.guessEvaluated(startNanos, resp.isCorrect());
+        return new Result(Result.Status.SCORED, resp);
+    }
+}
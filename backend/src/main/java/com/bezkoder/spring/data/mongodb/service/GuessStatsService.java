@@ -0,0 +1,76 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
+import com.bezkoder.spring.data.mongodb.model.GuessEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Analítica por día: los agregados viven en memoria (DailyStats) y cada intento
+ * se encola como GuessEvent para escribirse en lote. Nada de esto va a Mongo dentro del request.
+ */
+@Service
+public class GuessStatsService {
+
+    private final ConcurrentHashMap<String, DailyStats> days = new ConcurrentHashMap<>();
+    private final GuessEventBuffer buffer;
+    private final ItemService itemService;
+    private final PuzzleCalendar calendar;
+    private final Clock clock;
+    private final int retainDays;
+
+    public GuessStatsService(GuessEventBuffer buffer, ItemService itemService, PuzzleCalendar calendar, Clock clock,
+                             @Value("${stats.retain-days:7}") int retainDays) {
+        this.buffer = buffer;
+        this.itemService = itemService;
+        this.calendar = calendar;
+        this.clock = clock;
+        this.retainDays = retainDays;
+    }
+
+    public void record(String date, CompiledSolution solution, GuessRequest request, GuessResponse response) {
+        DailyStats stats = days.computeIfAbsent(date, d -> new DailyStats(d, solution.size()));
+        stats.attempt(response.isCorrect());
+
+        // los agregados cuentan todos los intentos; el evento (y su lista) sólo se construye si entra en la muestra
+        boolean sampled = buffer.sample();
+        ItemCatalog catalog = itemService.catalog();
+        List<GuessRequest.CellDTO> grid = request.getGrid();
+        List<String> placed = sampled ? new ArrayList<>(grid.size()) : null;
+        for (int i = 0; i < grid.size(); i++) {
+            GuessRequest.CellDTO cell = grid.get(i);
+            // sólo ids del catálogo: el cliente no puede inflar el mapa con ids inventados
+            String id = cell != null && Boolean.TRUE.equals(cell.getIsMainCell()) && catalog.get(cell.getId()) != null
+                    ? cell.getId() : null;
+            if (placed != null) placed.add(id);
+            if (id != null) stats.placed(id, i);
+        }
+        if (sampled) {
+            buffer.offer(new GuessEvent(date, clock.instant(), response.isCorrect(), response.getCorrectCells().size(), placed));
+        }
+    }
+
+    public Optional<DailyStats> forDate(String date) {
+        return Optional.ofNullable(days.get(date));
+    }
+
+    // los días antiguos ya están en guess_events; en memoria sólo los últimos
+    @Scheduled(cron = "${stats.evict-cron:0 5 0 * * *}", zone = "Europe/Madrid")
+    public void evictOldDays() {
+        String oldest = calendar.today().minusDays(retainDays).toString();
+        days.keySet().removeIf(date -> date.compareTo(oldest) < 0);
+    }
+
+    public LocalDate today() {
+        return calendar.today();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// las URLs vienen del catálogo (editable desde la API de administración): sólo http(s), sólo a icons.allowed-hosts
+// y como mucho icons.max-bytes, también tras una redirección
+@Component
+@ConditionalOnProperty(name = "icons.source", havingValue = "http", matchIfMissing = true)
+public class HttpIconFetcher implements IconFetcher {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final int MAX_REDIRECTS = 3;
+
+    // las redirecciones se siguen a mano para comprobar también el destino
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    private final Set<String> allowedHosts = new HashSet<>();
+    private final int maxBytes;
+
+    public HttpIconFetcher(@Value("${icons.allowed-hosts:static.wikia.nocookie.net}") String[] allowedHosts,
+                           @Value("${icons.max-bytes:1048576}") int maxBytes) {
+        for (String host : allowedHosts) {
+            if (!host.isBlank()) this.allowedHosts.add(host.trim().toLowerCase(Locale.ROOT));
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public byte[] fetch(String url) throws IOException {
+        URI uri = checked(URI.create(url));
+        try {
+            for (int redirects = 0; ; redirects++) {
+                HttpRequest request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET().build();
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    int status = response.statusCode();
+                    if (status / 100 == 3 && redirects < MAX_REDIRECTS) {
+                        String location = response.headers().firstValue("Location")
+                                .orElseThrow(() -> new IOException("HTTP " + status + " without Location for " + url));
+                        uri = checked(uri.resolve(location));
+                        continue;
+                    }
+                    if (status != 200) throw new IOException("HTTP " + status + " for " + url);
+                    if (response.headers().firstValueAsLong("Content-Length").orElse(0) > maxBytes) {
+                        throw new IOException("Icon larger than " + maxBytes + " bytes: " + url);
+                    }
+                    // sin fiarse de Content-Length: se lee como mucho un byte de más
+                    byte[] data = body.readNBytes(maxBytes + 1);
+                    if (data.length > maxBytes) throw new IOException("Icon larger than " + maxBytes + " bytes: " + url);
+                    return data;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted fetching " + url, e);
+        }
+    }
+
+    private URI checked(URI uri) throws IOException {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) throw new IOException("Icon URL must be http(s): " + uri);
+        String host = uri.getHost();
+        if (host == null || !allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            throw new IOException("Icon host not in icons.allowed-hosts: " + uri);
+        }
+        return uri;
+    }
+}
@@ -0,0 +1,104 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché en disco de los iconos, direccionada por contenido: cada imagen se guarda una vez
+ * con su sha-256 como nombre y urls.idx apunta cada URL a su hash. Una URL ya vista no se
+ * vuelve a descargar, ni siquiera tras reiniciar.
+ */
+@Component
+public class IconCache {
+
+    private static final Logger log = LoggerFactory.getLogger(IconCache.class);
+    private static final String INDEX = "urls.idx";
+
+    private final Path dir;
+    private final IconFetcher fetcher;
+    // url -> sha-256 del contenido
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    public IconCache(@Value("${icons.cache-dir:data/icons}") Path dir, IconFetcher fetcher) throws IOException {
+        this.dir = dir;
+        this.fetcher = fetcher;
+        Files.createDirectories(dir);
+        Path index = dir.resolve(INDEX);
+        if (Files.exists(index)) {
+            for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab > 0 && Files.exists(dir.resolve(line.substring(0, tab)))) {
+                    hashes.put(line.substring(tab + 1), line.substring(0, tab));
+                }
+            }
+        }
+    }
+
+    public static final class Icon {
+        private final String hash;
+        private final byte[] data;
+
+        Icon(String hash, byte[] data) {
+            this.hash = hash;
+            this.data = data;
+        }
+
+        public String getHash() { return hash; }
+        public byte[] getData() { return data; }
+    }
+
+    // vacío si la URL no se pudo descargar (se reintenta en la siguiente llamada)
+    public Optional<Icon> get(String url) {
+        if (url == null || url.isBlank()) return Optional.empty();
+        String hash = hashes.get(url);
+        try {
+            if (hash != null) return Optional.of(new Icon(hash, Files.readAllBytes(dir.resolve(hash))));
+            return Optional.of(fetchAndStore(url));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not get icon {}: {}", url, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Icon fetchAndStore(String url) throws IOException {
+        byte[] data = fetcher.fetch(url);
+        String hash = sha256(data);
+        Path blob = dir.resolve(hash);
+        if (!Files.exists(blob)) {
+            // escribir aparte y mover: nunca queda a la vista un fichero a medias
+            Path tmp = Files.createTempFile(dir, hash, ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, blob, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        synchronized (this) {
+            if (hashes.putIfAbsent(url, hash) == null) {
+                Files.writeString(dir.resolve(INDEX), hash + "\t" + url + "\n", StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        }
+        return new Icon(hash, data);
+    }
+
+    static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
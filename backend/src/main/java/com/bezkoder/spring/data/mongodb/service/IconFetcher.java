@@ -0,0 +1,12 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import java.io.IOException;
+
+/**
+ * De dónde salen los iconos de los items ({@code Item.emoji}). Por defecto se descargan por HTTP;
+ * con icons.source=directory se leen de una carpeta local (tests, nodos sin salida a internet).
+ */
+public interface IconFetcher {
+
+    byte[] fetch(String url) throws IOException;
+}
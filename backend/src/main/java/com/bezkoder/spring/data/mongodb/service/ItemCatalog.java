@@ -0,0 +1,67 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.DigestUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Foto inmutable del catálogo de items. Cada escritura crea una nueva versión;
+ * el JSON de GET /api/items se serializa una sola vez por versión.
+ */
+public final class ItemCatalog {
+
+    private final long version;
+    private final Map<String, Item> byId;
+    private final List<Item> items;
+    private final byte[] json;
+    private final String etag;
+
+    private ItemCatalog(long version, Map<String, Item> byId, byte[] json) {
+        this.version = version;
+        this.byId = Collections.unmodifiableMap(byId);
+        this.items = List.copyOf(byId.values());
+        this.json = json;
+        // el ETag depende sólo del contenido, así coincide entre nodos
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+
+    public static ItemCatalog of(long version, List<Item> items, ObjectMapper mapper) {
+        Map<String, Item> byId = new LinkedHashMap<>();
+        for (Item item : items) byId.put(item.getId(), item);
+        return build(version, byId, mapper);
+    }
+
+    // nueva versión con los items añadidos/reemplazados
+    public ItemCatalog withSaved(long version, List<Item> saved, ObjectMapper mapper) {
+        Map<String, Item> copy = new LinkedHashMap<>(byId);
+        for (Item item : saved) copy.put(item.getId(), item);
+        return build(version, copy, mapper);
+    }
+
+    public ItemCatalog withDeleted(long version, String id, ObjectMapper mapper) {
+        Map<String, Item> copy = new LinkedHashMap<>(byId);
+        copy.remove(id);
+        return build(version, copy, mapper);
+    }
+
+    private static ItemCatalog build(long version, Map<String, Item> byId, ObjectMapper mapper) {
+        try {
+            return new ItemCatalog(version, byId, mapper.writeValueAsBytes(byId.values()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize item catalog", e);
+        }
+    }
+
+    public long getVersion() { return version; }
+    public List<Item> getItems() { return items; }
+    public Item get(String id) { return id == null ? null : byId.get(id); }
+    public int size() { return items.size(); }
+    public byte[] getJson() { return json; }
+    public String getEtag() { return etag; }
+}
@@ -0,0 +1,226 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria para buscar items por nombre: trigramas del nombre normalizado (minúsculas,
+ * sin acentos) y prefijos de 1-2 letras de cada palabra. Cada posting es un conjunto ordenado de
+ * claves (nombre + id), así que los resultados salen ya en orden y el cursor de una página es
+ * simplemente la clave del último item devuelto. Se actualiza item a item en save/delete.
+ */
+public final class ItemSearchIndex {
+
+    public static final class Page {
+        private final List<Item> items;
+        private final String nextCursor;
+
+        Page(List<Item> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Item> getItems() { return items; }
+        // null si no hay más
+        public String getNextCursor() { return nextCursor; }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // clave de orden -> item
+    private final TreeMap<String, Item> byKey = new TreeMap<>();
+    private final Map<String, String> keyById = new HashMap<>();
+    // gram -> claves de los items que lo contienen
+    private final Map<String, TreeSet<String>> postings = new HashMap<>();
+
+    public void replaceAll(Collection<Item> items) {
+        lock.writeLock().lock();
+        try {
+            byKey.clear();
+            keyById.clear();
+            postings.clear();
+            for (Item item : items) add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(String id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param query  texto a buscar en el nombre (1-2 letras: inicio de palabra; más: en cualquier parte); null = todos
+     * @param width  filtros exactos, null = sin filtro
+     * @param cursor el nextCursor de la página anterior, null para la primera
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public Page search(String query, Integer width, Integer height, String color, String cursor, int limit) {
+        String q = query == null ? "" : normalize(query).trim();
+        String after = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+
+        lock.readLock().lock();
+        try {
+            Iterator<String> candidates;
+            List<NavigableSet<String>> others = new ArrayList<>();
+            if (q.isEmpty()) {
+                candidates = tail(byKey.navigableKeySet(), after);
+            } else {
+                NavigableSet<String> smallest = null;
+                for (String gram : queryGrams(q)) {
+                    TreeSet<String> posting = postings.get(gram);
+                    if (posting == null) return new Page(List.of(), null);
+                    if (smallest == null || posting.size() < smallest.size()) {
+                        if (smallest != null) others.add(smallest);
+                        smallest = posting;
+                    } else {
+                        others.add(posting);
+                    }
+                }
+                candidates = tail(smallest, after);
+            }
+
+            List<Item> page = new ArrayList<>(Math.min(limit, 64));
+            String last = null;
+            while (candidates.hasNext()) {
+                String key = candidates.next();
+                if (!containsAll(others, key)) continue;
+                Item item = byKey.get(key);
+                if (!matches(item, key, q, width, height, color)) continue;
+                if (page.size() == limit) {
+                    // hay al menos uno más: la siguiente página empieza después del último devuelto
+                    return new Page(page, encodeCursor(last));
+                }
+                page.add(item);
+                last = key;
+            }
+            return new Page(page, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Item item) {
+        String key = sortKey(item);
+        byKey.put(key, item);
+        keyById.put(item.getId(), key);
+        for (String gram : grams(name(key))) postings.computeIfAbsent(gram, g -> new TreeSet<>()).add(key);
+    }
+
+    private void remove(String id) {
+        String key = keyById.remove(id);
+        if (key == null) return;
+        byKey.remove(key);
+        for (String gram : grams(name(key))) {
+            TreeSet<String> posting = postings.get(gram);
+            if (posting == null) continue;
+            posting.remove(key);
+            if (posting.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    private static boolean matches(Item item, String key, String q, Integer width, Integer height, String color) {
+        if (width != null && item.getWidth() != width) return false;
+        if (height != null && item.getHeight() != height) return false;
+        if (color != null && !color.equalsIgnoreCase(item.getColor())) return false;
+        if (q.isEmpty()) return true;
+        String name = name(key);
+        // los grams sólo descartan: hay que confirmar que el texto está (y en el mismo orden)
+        if (q.length() >= 3) return name.contains(q);
+        for (String word : name.split(" ")) if (word.startsWith(q)) return true;
+        return false;
+    }
+
+    private static boolean containsAll(List<NavigableSet<String>> sets, String key) {
+        for (NavigableSet<String> set : sets) if (!set.contains(key)) return false;
+        return true;
+    }
+
+    private static Iterator<String> tail(NavigableSet<String> keys, String after) {
+        return (after == null ? keys : keys.tailSet(after, false)).iterator();
+    }
+
+    // grams que se indexan de un nombre ya normalizado
+    private static Set<String> grams(String name) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= name.length(); i++) grams.add(name.substring(i, i + 3));
+        for (String word : name.split(" ")) {
+            if (word.isEmpty()) continue;
+            grams.add("^" + word.substring(0, 1));
+            if (word.length() >= 2) grams.add("^" + word.substring(0, 2));
+        }
+        return grams;
+    }
+
+    private static Set<String> queryGrams(String q) {
+        if (q.length() < 3) return Set.of("^" + q);
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= q.length(); i++) grams.add(q.substring(i, i + 3));
+        return grams;
+    }
+
+    static String normalize(String s) {
+        String stripped = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    // nombre normalizado + \0 + id: orden alfabético estable aunque dos items se llamen igual
+    private static String sortKey(Item item) {
+        String name = item.getName() == null ? "" : normalize(item.getName()).trim();
+        return name + '\0' + item.getId();
+    }
+
+    private static String name(String key) {
+        return key.substring(0, key.indexOf('\0'));
+    }
+
+    private static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (key.indexOf('\0') < 0) throw new IllegalArgumentException("Invalid cursor");
+        return key;
+    }
+}
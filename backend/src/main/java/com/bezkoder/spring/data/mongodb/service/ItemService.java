@@ -2,39 +2,108 @@
 package com.bezkoder.spring.data.mongodb.service;
 
 
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.bezkoder.spring.data.mongodb.model.Item;
-import com.bezkoder.spring.data.mongodb.repository.ItemRepository;
+import com.bezkoder.spring.data.mongodb.repository.ItemStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class ItemService {
-    private final ItemRepository repo;
+    private final ItemStore repo;
+    private final ObjectMapper mapper;
 
-    public ItemService(ItemRepository repo) {
+    // el catálogo se lee entero del almacén una vez; después se sirve desde memoria
+    private volatile ItemCatalog catalog;
+    private final AtomicLong versions = new AtomicLong();
+    // búsqueda por nombre; se actualiza item a item en save/delete
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    public ItemService(ItemStore repo, ObjectMapper mapper) {
         this.repo = repo;
+        this.mapper = mapper;
+    }
+
+    public ItemCatalog catalog() {
+        ItemCatalog current = catalog;
+        return current != null ? current : reload();
     }
 
     public List<Item> findAll() {
-        return repo.findAll();
+        return catalog().getItems();
     }
 
     public Optional<Item> findById(String id) {
-        return repo.findById(id);
+        return Optional.ofNullable(catalog().get(id));
     }
 
     public Item save(Item item) {
-        return repo.save(item);
+        Item saved = repo.save(item);
+        synchronized (this) {
+            catalog = catalog().withSaved(versions.incrementAndGet(), List.of(saved), mapper);
+            index.put(saved);
+        }
+        return saved;
     }
 
     public void deleteById(String id) {
         repo.deleteById(id);
+        synchronized (this) {
+            catalog = catalog().withDeleted(versions.incrementAndGet(), id, mapper);
+            index.delete(id);
+        }
     }
 
     public void saveAll(List<Item> items) {
-        repo.saveAll(items);
+        List<Item> saved = repo.saveAll(items);
+        synchronized (this) {
+            catalog = catalog().withSaved(versions.incrementAndGet(), saved, mapper);
+            for (Item item : saved) index.put(item);
+        }
+    }
+
+    /**
+     * Catálogo de serie (DataLoader): sólo se escribe si el almacén tiene una versión anterior.
+     * Lo normal al arrancar es que ya esté: una sola lectura, sin cargar los items. Devuelve si ha escrito.
+     */
+    public boolean seed(int version, List<Item> items) {
+        int current = repo.seededVersion();
+        // sembrado antes de que hubiera versiones: esos items son los de la primera
+        if (current == 0 && repo.count() > 0) {
+            current = 1;
+            repo.markSeeded(current);
+        }
+        if (current >= version) return false;
+        saveAll(items);
+        repo.markSeeded(version);
+        return true;
+    }
+
+    public ItemSearchIndex.Page search(String query, Integer width, Integer height, String color,
+                                       String cursor, int limit) {
+        catalog(); // la primera vez carga el catálogo (y con él el índice)
+        return index.search(query, width, height, color, cursor, limit);
+    }
+
+    // recoge cambios hechos por otros nodos (o directamente en Mongo); si nada cambió se queda la versión actual
+    @Scheduled(fixedDelayString = "${items.catalog.refresh-ms:60000}", initialDelayString = "${items.catalog.refresh-ms:60000}")
+    public void refresh() {
+        reload();
+    }
+
+    private synchronized ItemCatalog reload() {
+        ItemCatalog fresh = ItemCatalog.of(versions.get() + 1, repo.findAll(), mapper);
+        ItemCatalog current = catalog;
+        if (current != null && Arrays.equals(current.getJson(), fresh.getJson())) return current;
+        versions.incrementAndGet();
+        catalog = fresh;
+        index.replaceAll(fresh.getItems());
+        return fresh;
     }
 }
@@ -0,0 +1,80 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clasificaciones diarias en memoria (DailyLeaderboard). Las alimenta PlayerSessions con la primera
+ * resolución de cada jugador; LeaderboardSnapshotWriter las guarda en Mongo cada poco y las recupera al arrancar.
+ * Con varios nodos cada uno guarda la suya y lee las de los demás: standings() devuelve la suma.
+ */
+@Service
+public class LeaderboardService {
+
+    private final ConcurrentHashMap<String, DailyLeaderboard> days = new ConcurrentHashMap<>();
+    // fecha -> último snapshot leído de cada uno de los otros nodos
+    private final ConcurrentHashMap<String, List<DailyLeaderboard>> others = new ConcurrentHashMap<>();
+    private final PuzzleCalendar calendar;
+    private final int topSize;
+    private final int retainDays;
+
+    public LeaderboardService(PuzzleCalendar calendar,
+                              @Value("${leaderboard.top-size:100}") int topSize,
+                              @Value("${leaderboard.retain-days:2}") int retainDays) {
+        this.calendar = calendar;
+        this.topSize = topSize;
+        this.retainDays = retainDays;
+    }
+
+    public int getTopSize() { return topSize; }
+
+    public void record(LocalDate day, long player, int attempts, int seconds) {
+        board(day.toString()).submit(player, attempts, seconds);
+    }
+
+    // sólo las resoluciones de este nodo
+    public Optional<DailyLeaderboard> forDate(String date) {
+        return Optional.ofNullable(days.get(date));
+    }
+
+    // la de todos los nodos: lo de este en vivo y lo de los demás según su último snapshot
+    public Optional<MergedLeaderboard> standings(String date) {
+        DailyLeaderboard local = days.get(date);
+        List<DailyLeaderboard> remote = others.getOrDefault(date, List.of());
+        if (local == null && remote.isEmpty()) return Optional.empty();
+        List<DailyLeaderboard> boards = new ArrayList<>(remote.size() + 1);
+        if (local != null) boards.add(local);
+        boards.addAll(remote);
+        return Optional.of(new MergedLeaderboard(boards));
+    }
+
+    public void replaceOthers(String date, List<DailyLeaderboard> boards) {
+        if (boards.isEmpty()) others.remove(date);
+        else others.put(date, List.copyOf(boards));
+    }
+
+    // también para restaurar un snapshot antes de que llegue la primera resolución del día
+    public DailyLeaderboard board(String date) {
+        return days.computeIfAbsent(date, d -> new DailyLeaderboard(d, topSize));
+    }
+
+    public Collection<DailyLeaderboard> boards() {
+        return days.values();
+    }
+
+    // los días anteriores ya están guardados (snapshot); en memoria sólo los últimos
+    @Scheduled(cron = "${leaderboard.evict-cron:0 10 0 * * *}", zone = "Europe/Madrid")
+    public void evictOldDays() {
+        String oldest = calendar.today().minusDays(retainDays).toString();
+        days.keySet().removeIf(date -> date.compareTo(oldest) < 0);
+        others.keySet().removeIf(date -> date.compareTo(oldest) < 0);
+    }
+}
@@ -0,0 +1,143 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.bezkoder.spring.data.mongodb.model.LeaderboardSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guarda cada cierto tiempo las clasificaciones de este nodo que han cambiado (un documento por día y nodo)
+ * y trae las de los demás nodos para LeaderboardService.standings. Al arrancar recupera la suya de los días en juego.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "mongo", matchIfMissing = true)
+public class LeaderboardSnapshotWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardSnapshotWriter.class);
+
+    private final LeaderboardService leaderboards;
+    private final PuzzleCalendar calendar;
+    private final MongoTemplate mongoTemplate;
+    private final String node;
+    // fecha -> resoluciones que había en el último snapshot guardado
+    private final Map<String, Long> written = new ConcurrentHashMap<>();
+    // id del snapshot de otro nodo -> lo último que se leyó de él (sólo se decodifica otra vez si ha cambiado)
+    private final Map<String, DailyLeaderboard> read = new HashMap<>();
+
+    public LeaderboardSnapshotWriter(LeaderboardService leaderboards, PuzzleCalendar calendar, MongoTemplate mongoTemplate,
+                                     @Value("${leaderboard.node-id:}") String node) {
+        this.leaderboards = leaderboards;
+        this.calendar = calendar;
+        this.mongoTemplate = mongoTemplate;
+        // sin nombre fijo, uno por proceso: lo de un proceso anterior se sigue sumando como si fuera otro nodo
+        this.node = node.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : node;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreLiveDays() {
+        log.info("Leaderboard snapshots as node {}", node);
+        for (String date : liveDays()) restore(date);
+        readOthers();
+    }
+
+    private void restore(String date) {
+        try {
+            LeaderboardSnapshot snapshot = mongoTemplate.findById(date + ":" + node, LeaderboardSnapshot.class);
+            if (snapshot == null) return;
+            DailyLeaderboard board = leaderboards.board(date);
+            load(board, snapshot);
+            written.put(date, board.solvers());
+            log.info("Restored leaderboard for {} ({} solvers)", date, snapshot.getSolvers());
+        } catch (RuntimeException e) {
+            log.warn("Could not restore the leaderboard for " + date, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot-ms:30000}")
+    public void snapshot() {
+        for (DailyLeaderboard board : leaderboards.boards()) {
+            long solvers = board.solvers();
+            if (written.getOrDefault(board.getDate(), -1L) == solvers) continue;
+
+            List<LeaderboardSnapshot.Entry> top = new ArrayList<>();
+            for (DailyLeaderboard.Entry e : board.top(leaderboards.getTopSize())) {
+                top.add(new LeaderboardSnapshot.Entry(PlayerSessions.playerId(e.getPlayer()), e.getAttempts(), e.getSeconds()));
+            }
+            try {
+                mongoTemplate.save(new LeaderboardSnapshot(board.getDate(), node, solvers, top, board.encodeCounts()));
+                written.put(board.getDate(), solvers);
+            } catch (RuntimeException e) {
+                // se reintenta en el siguiente ciclo; la memoria sigue siendo la fuente de verdad
+                log.warn("Could not snapshot leaderboard for {}: {}", board.getDate(), e.getMessage());
+            }
+        }
+        // los días que ya no están en memoria no se vuelven a escribir
+        written.keySet().removeIf(date -> leaderboards.forDate(date).isEmpty());
+        readOthers();
+    }
+
+    // las clasificaciones de los demás nodos (y de procesos anteriores) para los días en juego
+    private synchronized void readOthers() {
+        List<String> dates = liveDays();
+        List<LeaderboardSnapshot> snapshots;
+        try {
+            // los antiguos, de un solo nodo, no tienen el campo date
+            snapshots = mongoTemplate.find(Query.query(new Criteria().orOperator(
+                    where("date").in(dates), where("_id").in(dates))), LeaderboardSnapshot.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not read other nodes' leaderboards: {}", e.getMessage());
+            return;
+        }
+        Map<String, List<DailyLeaderboard>> byDate = new HashMap<>();
+        Map<String, DailyLeaderboard> seen = new HashMap<>();
+        for (LeaderboardSnapshot snapshot : snapshots) {
+            if (node.equals(snapshot.getNode())) continue;
+            DailyLeaderboard board = read.get(snapshot.getId());
+            if (board == null || board.solvers() != snapshot.getSolvers()) {
+                board = new DailyLeaderboard(snapshot.getDate(), leaderboards.getTopSize());
+                load(board, snapshot);
+            }
+            seen.put(snapshot.getId(), board);
+            byDate.computeIfAbsent(snapshot.getDate(), d -> new ArrayList<>()).add(board);
+        }
+        read.clear();
+        read.putAll(seen);
+        for (String date : dates) leaderboards.replaceOthers(date, byDate.getOrDefault(date, List.of()));
+    }
+
+    private static void load(DailyLeaderboard board, LeaderboardSnapshot snapshot) {
+        List<DailyLeaderboard.Entry> top = new ArrayList<>();
+        for (LeaderboardSnapshot.Entry e : snapshot.getTop()) {
+            top.add(DailyLeaderboard.entry(Long.parseUnsignedLong(e.getPlayer(), 16), e.getAttempts(), e.getSeconds()));
+        }
+        board.restore(snapshot.getCounts(), top);
+    }
+
+    // ayer, hoy y mañana (hora de Madrid): según la zona, alguien puede estar jugando cualquiera de los tres
+    private List<String> liveDays() {
+        LocalDate today = calendar.today();
+        List<String> dates = new ArrayList<>();
+        for (LocalDate day = today.minusDays(1); !day.isAfter(today.plusDays(1)); day = day.plusDays(1)) {
+            dates.add(day.toString());
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,73 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// pasa de una vez los SolutionGrid antiguos al formato compacto (reparando los que no tienen 'cells'), con escrituras en bloque
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "mongo", matchIfMissing = true)
+public class LegacyGridMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyGridMigration.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final ItemService itemService;
+
+    public LegacyGridMigration(MongoTemplate mongoTemplate, ItemService itemService) {
+        this.mongoTemplate = mongoTemplate;
+        this.itemService = itemService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            int migrated = migrateLegacyGrids();
+            if (migrated > 0) log.info("Migrated {} legacy solution grids to the compact format", migrated);
+        } catch (RuntimeException e) {
+            log.warn("Legacy solution grid migration failed", e);
+        }
+    }
+
+    public int migrateLegacyGrids() {
+        ItemCatalog catalog = itemService.catalog();
+        // todo lo que no esté en el formato compacto (sin 'cover'): se lee con el formato antiguo,
+        // se le reconstruye 'cells' si hace falta y se reescribe entero en el nuevo
+        Query legacy = Query.query(where("cover").exists(false));
+
+        int migrated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<SolutionGrid> stream = mongoTemplate.stream(legacy, SolutionGrid.class)) {
+            Iterator<SolutionGrid> it = stream.iterator();
+            while (it.hasNext()) {
+                SolutionGrid sg = it.next();
+                if (bulk == null) bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SolutionGrid.class);
+                if (sg.getCells() == null || sg.getCells().size() != sg.getWidth() * sg.getHeight()) {
+                    sg.setCells(SolutionGridService.cellsFromMainCells(sg, catalog));
+                }
+                bulk.replaceOne(Query.query(where("_id").is(sg.getId())), sg);
+                if (++pending == BATCH_SIZE) {
+                    migrated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) migrated += bulk.execute().getModifiedCount();
+        return migrated;
+    }
+}
@@ -0,0 +1,62 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Clasificación de un día sumando la de este nodo con los últimos snapshots de los demás (LeaderboardService.standings).
+ * Cada nodo sólo cuenta a quien resolvió en él, así que basta con sumar: resoluciones, jugadores mejores
+ * y los tops (el top n de la suma está dentro de los top n de cada uno).
+ * Un jugador que resolvió el mismo día en dos nodos (sin afinidad de sesión, o un nodo reiniciado sin
+ * leaderboard.node-id) cuenta una vez por nodo en solvers() y rank(): los histogramas no guardan quién es quién.
+ * El top sí lo sabe: cada jugador sale una vez, con su mejor marca.
+ */
+public final class MergedLeaderboard {
+
+    private static final Comparator<DailyLeaderboard.Entry> ORDER =
+            Comparator.comparingInt(DailyLeaderboard.Entry::getAttempts).thenComparingInt(DailyLeaderboard.Entry::getSeconds);
+
+    private final List<DailyLeaderboard> boards;
+
+    MergedLeaderboard(List<DailyLeaderboard> boards) {
+        this.boards = boards;
+    }
+
+    public long solvers() {
+        long solvers = 0;
+        for (DailyLeaderboard board : boards) solvers += board.solvers();
+        return solvers;
+    }
+
+    public long rank(int attempts, int seconds) {
+        long better = 0;
+        for (DailyLeaderboard board : boards) better += board.rank(attempts, seconds) - 1;
+        return better + 1;
+    }
+
+    public List<DailyLeaderboard.Entry> top(int n) {
+        if (boards.size() == 1) return boards.get(0).top(n);
+        List<DailyLeaderboard.Entry> all = new ArrayList<>();
+        for (DailyLeaderboard board : boards) all.addAll(board.top(n));
+        // estable: a igualdad va primero el de este nodo
+        all.sort(ORDER);
+        List<DailyLeaderboard.Entry> out = new ArrayList<>(Math.min(n, all.size()));
+        Set<Long> seen = new HashSet<>();
+        // las marcas repetidas que se han quitado del top: tampoco cuentan en el puesto de los que van detrás
+        List<DailyLeaderboard.Entry> repeated = new ArrayList<>();
+        for (DailyLeaderboard.Entry e : all) {
+            if (out.size() >= n) break;
+            if (!seen.add(e.getPlayer())) {
+                repeated.add(e);
+                continue;
+            }
+            long ahead = repeated.stream().filter(r -> ORDER.compare(r, e) < 0).count();
+            out.add(new DailyLeaderboard.Entry(e.getPlayer(), e.getAttempts(), e.getSeconds(),
+                    rank(e.getAttempts(), e.getSeconds()) - ahead));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,215 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuenta de cuántas formas distintas se puede colocar un conjunto de items (multiconjunto) en el grid.
+ * Si hay más de una, un jugador puede dar una respuesta "equivalente" y que se la marquen mal.
+ *
+ * DP con memo sobre (ocupación, items restantes): se rellena siempre la primera casilla libre
+ * (en orden fila a fila), o se deja vacía, así que cada colocación se cuenta exactamente una vez.
+ * La ocupación es un long por fila (width <= 64). El primer nivel se reparte en paralelo.
+ */
+public final class PackingCounter {
+
+    private final int width;
+    private final int height;
+    private final boolean rotation;
+    private final long fullRow;
+
+    public PackingCounter(int width, int height, boolean rotation) {
+        if (width < 1 || height < 1 || width > PlacementEngine.MAX_WIDTH) {
+            throw new IllegalArgumentException("Unsupported grid size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.rotation = rotation;
+        this.fullRow = PlacementEngine.rowMask(width);
+    }
+
+    public static final class Result {
+        private final long count;
+        private final boolean complete;
+        private final long states;
+
+        Result(long count, boolean complete, long states) {
+            this.count = count;
+            this.complete = complete;
+            this.states = states;
+        }
+
+        // número de soluciones (saturado en el límite pedido)
+        public long getCount() { return count; }
+        // false si se agotó el presupuesto de estados antes de terminar
+        public boolean isComplete() { return complete; }
+        public long getStates() { return states; }
+    }
+
+    /**
+     * @param items  items a colocar; los que tienen el mismo id son indistinguibles entre sí
+     * @param limit  deja de contar al llegar a este número de soluciones
+     * @param maxStates presupuesto de estados memorizados
+     */
+    public Result count(List<Item> items, long limit, long maxStates) {
+        // agrupa por id para no contar permutaciones de copias del mismo item
+        Map<String, int[]> groups = new LinkedHashMap<>();
+        int area = 0;
+        for (Item item : items) {
+            int w = Math.max(1, item.getWidth());
+            int h = Math.max(1, item.getHeight());
+            area += w * h;
+            groups.computeIfAbsent(item.getId(), k -> new int[]{w, h, 0})[2]++;
+        }
+        if (area > width * height) return new Result(0, true, 0);
+
+        List<int[]> shapes = new ArrayList<>(groups.values());
+        Search search = new Search(shapes, limit, maxStates);
+        int[] counts = new int[shapes.size()];
+        for (int g = 0; g < counts.length; g++) counts[g] = shapes.get(g)[2];
+
+        try {
+            long total = search.root(new long[height], counts, area);
+            return new Result(Math.min(total, limit), true, search.states.get());
+        } catch (BudgetExceeded e) {
+            return new Result(limit, false, search.states.get());
+        }
+    }
+
+    private static final class BudgetExceeded extends RuntimeException {
+        BudgetExceeded() { super(null, null, false, false); }
+    }
+
+    private static final class State {
+        private final long[] rows;
+        private final int[] counts;
+        private final int hash;
+
+        State(long[] rows, int[] counts) {
+            this.rows = rows;
+            this.counts = counts;
+            this.hash = 31 * Arrays.hashCode(rows) + Arrays.hashCode(counts);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) return false;
+            State other = (State) o;
+            return hash == other.hash && Arrays.equals(rows, other.rows) && Arrays.equals(counts, other.counts);
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+    }
+
+    private final class Search {
+        private final List<int[]> shapes;
+        private final long limit;
+        private final long maxStates;
+        private final ConcurrentHashMap<State, Long> memo = new ConcurrentHashMap<>();
+        private final AtomicLong states = new AtomicLong();
+
+        Search(List<int[]> shapes, long limit, long maxStates) {
+            this.shapes = shapes;
+            this.limit = limit;
+            this.maxStates = maxStates;
+        }
+
+        // primer nivel: cada opción para la casilla (0,0) se explora en paralelo
+        long root(long[] rows, int[] counts, int remainingArea) {
+            List<long[]> options = new ArrayList<>();   // {grupo, w, h} o {-1} = dejar vacía
+            if (remainingArea == 0) return 1;
+            if (remainingArea < width * height) options.add(new long[]{-1});
+            for (int g = 0; g < shapes.size(); g++) {
+                int[] shape = shapes.get(g);
+                for (int o = 0; o < orientations(shape); o++) {
+                    options.add(new long[]{g, o == 0 ? shape[0] : shape[1], o == 0 ? shape[1] : shape[0]});
+                }
+            }
+            return options.parallelStream().mapToLong(opt -> {
+                int g = (int) opt[0];
+                if (g < 0) return solve(withCell(rows, 0, 0), counts, remainingArea);
+                int w = (int) opt[1];
+                int h = (int) opt[2];
+                if (!fits(rows, 0, 0, w, h)) return 0;
+                return solve(place(rows, 0, 0, w, h), decrement(counts, g), remainingArea - w * h);
+            }).reduce(0, (a, b) -> Math.min(limit, a + b));
+        }
+
+        long solve(long[] rows, int[] counts, int remainingArea) {
+            if (remainingArea == 0) return 1;
+            int row = firstFreeRow(rows);
+            if (row < 0) return 0;
+            int freeCells = 0;
+            for (long r : rows) freeCells += width - Long.bitCount(r);
+            if (freeCells < remainingArea) return 0;
+
+            State key = new State(rows, counts);
+            Long known = memo.get(key);
+            if (known != null) return known;
+            if (states.incrementAndGet() > maxStates) throw new BudgetExceeded();
+
+            int col = Long.numberOfTrailingZeros(~rows[row]);
+            long total = 0;
+            // dejar la casilla vacía (si sobra sitio)
+            if (freeCells > remainingArea) {
+                total = solve(withCell(rows, row, col), counts, remainingArea);
+            }
+            for (int g = 0; g < shapes.size() && total < limit; g++) {
+                if (counts[g] == 0) continue;
+                int[] shape = shapes.get(g);
+                for (int o = 0; o < orientations(shape) && total < limit; o++) {
+                    int w = o == 0 ? shape[0] : shape[1];
+                    int h = o == 0 ? shape[1] : shape[0];
+                    if (!fits(rows, row, col, w, h)) continue;
+                    total += solve(place(rows, row, col, w, h), decrement(counts, g), remainingArea - w * h);
+                }
+            }
+            total = Math.min(total, limit);
+            memo.put(key, total);
+            return total;
+        }
+    }
+
+    private int orientations(int[] shape) {
+        return rotation && shape[0] != shape[1] ? 2 : 1;
+    }
+
+    private int firstFreeRow(long[] rows) {
+        for (int r = 0; r < rows.length; r++) if (rows[r] != fullRow) return r;
+        return -1;
+    }
+
+    private boolean fits(long[] rows, int row, int col, int w, int h) {
+        if (row + h > height || col + w > width) return false;
+        long mask = PlacementEngine.rowMask(w) << col;
+        for (int r = row; r < row + h; r++) if ((rows[r] & mask) != 0) return false;
+        return true;
+    }
+
+    private long[] place(long[] rows, int row, int col, int w, int h) {
+        long[] next = rows.clone();
+        long mask = PlacementEngine.rowMask(w) << col;
+        for (int r = row; r < row + h; r++) next[r] |= mask;
+        return next;
+    }
+
+    private long[] withCell(long[] rows, int row, int col) {
+        long[] next = rows.clone();
+        next[row] |= 1L << col;
+        return next;
+    }
+
+    private static int[] decrement(int[] counts, int g) {
+        int[] next = counts.clone();
+        next[g]--;
+        return next;
+    }
+}
@@ -0,0 +1,174 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coloca items en un contenedor de width x height con bitmasks.
+ * Si el contenedor cabe en 64 casillas todo el grid es un único long (índice = row * width + col)
+ * y comprobar una posición es un solo AND; si no, se usa un long por fila (width <= 64).
+ */
+public final class PlacementEngine {
+
+    public static final int MAX_WIDTH = Long.SIZE;
+
+    private final int width;
+    private final int height;
+    private final boolean rotation;
+    private final boolean singleWord;
+
+    public PlacementEngine(int width, int height, boolean rotation) {
+        if (width < 1 || height < 1 || width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Unsupported grid size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.rotation = rotation;
+        this.singleWord = width * height <= Long.SIZE;
+    }
+
+    public int width() { return width; }
+    public int height() { return height; }
+
+    public static final class Placement {
+        private final String itemId;
+        private final int row;
+        private final int col;
+        private final int width;
+        private final int height;
+
+        Placement(String itemId, int row, int col, int width, int height) {
+            this.itemId = itemId;
+            this.row = row;
+            this.col = col;
+            this.width = width;
+            this.height = height;
+        }
+
+        public String getItemId() { return itemId; }
+        public int getRow() { return row; }
+        public int getCol() { return col; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+
+    // máscara de w bits seguidos (w <= 64)
+    static long rowMask(int w) {
+        return w >= Long.SIZE ? -1L : (1L << w) - 1;
+    }
+
+    // huella de un item w x h en la esquina (0,0) del grid de una sola palabra
+    long footprint(int w, int h) {
+        long row = rowMask(w);
+        long mask = 0;
+        for (int r = 0; r < h; r++) mask |= row << (r * width);
+        return mask;
+    }
+
+    /**
+     * Coloca los items en el orden recibido, cada uno en la primera posición libre (fila a fila).
+     * Los que no caben se descartan, como hacía el generador original.
+     */
+    public List<Placement> pack(List<Item> items) {
+        List<Placement> placements = new ArrayList<>();
+        if (singleWord) packSingleWord(items, placements);
+        else packRows(items, placements);
+        return placements;
+    }
+
+    private void packSingleWord(List<Item> items, List<Placement> placements) {
+        long occupied = 0;
+        long full = rowMask(width * height);
+        int free = width * height;
+        for (Item item : items) {
+            if (occupied == full) break;
+            int w = Math.max(1, item.getWidth());
+            int h = Math.max(1, item.getHeight());
+            if (w * h > free) continue;
+            for (int o = 0; o < orientations(w, h); o++) {
+                int iw = o == 0 ? w : h;
+                int ih = o == 0 ? h : w;
+                if (iw > width || ih > height) continue;
+                long shape = footprint(iw, ih);
+                int pos = firstFit(occupied, shape, iw, ih);
+                if (pos < 0) continue;
+                occupied |= shape << pos;
+                free -= iw * ih;
+                placements.add(new Placement(item.getId(), pos / width, pos % width, iw, ih));
+                break;
+            }
+        }
+    }
+
+    private int firstFit(long occupied, long shape, int w, int h) {
+        for (int row = 0; row <= height - h; row++) {
+            for (int col = 0; col <= width - w; col++) {
+                int pos = row * width + col;
+                if ((occupied & (shape << pos)) == 0) return pos;
+            }
+        }
+        return -1;
+    }
+
+    private void packRows(List<Item> items, List<Placement> placements) {
+        long[] rows = new long[height];
+        int free = width * height;
+        for (Item item : items) {
+            if (free == 0) break;
+            int w = Math.max(1, item.getWidth());
+            int h = Math.max(1, item.getHeight());
+            if (w * h > free) continue;
+            for (int o = 0; o < orientations(w, h); o++) {
+                int iw = o == 0 ? w : h;
+                int ih = o == 0 ? h : w;
+                if (iw > width || ih > height) continue;
+                if (tryPlaceRows(rows, item.getId(), iw, ih, placements)) {
+                    free -= iw * ih;
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean tryPlaceRows(long[] rows, String itemId, int w, int h, List<Placement> placements) {
+        long base = rowMask(w);
+        for (int row = 0; row <= height - h; row++) {
+            for (int col = 0; col <= width - w; col++) {
+                long mask = base << col;
+                boolean ok = true;
+                for (int r = row; r < row + h; r++) {
+                    if ((rows[r] & mask) != 0) { ok = false; break; }
+                }
+                if (!ok) continue;
+                for (int r = row; r < row + h; r++) rows[r] |= mask;
+                placements.add(new Placement(itemId, row, col, w, h));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int orientations(int w, int h) {
+        return rotation && w != h ? 2 : 1;
+    }
+
+    // pasa las colocaciones al formato persistido (mainCells + cells)
+    public SolutionGrid toSolutionGrid(String date, List<Placement> placements) {
+        SolutionGrid sg = new SolutionGrid(width, height);
+        sg.setDate(date);
+        List<String> mainCells = sg.getMainCells();
+        List<String> cells = sg.getCells();
+        for (Placement p : placements) {
+            mainCells.set(p.getRow() * width + p.getCol(), p.getItemId());
+            for (int r = p.getRow(); r < p.getRow() + p.getHeight(); r++) {
+                for (int c = p.getCol(); c < p.getCol() + p.getWidth(); c++) {
+                    cells.set(r * width + c, p.getItemId());
+                }
+            }
+        }
+        return sg;
+    }
+}
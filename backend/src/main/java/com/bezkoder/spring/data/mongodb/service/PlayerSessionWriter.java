@@ -0,0 +1,100 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.bezkoder.spring.data.mongodb.model.PlayerDay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// guarda en Mongo (upserts en bloque) los jugadores que han cambiado, y al arrancar recupera los días en juego
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "mongo", matchIfMissing = true)
+public class PlayerSessionWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerSessionWriter.class);
+
+    private final PlayerSessions sessions;
+    private final PuzzleCalendar calendar;
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public PlayerSessionWriter(PlayerSessions sessions, PuzzleCalendar calendar, MongoTemplate mongoTemplate,
+                               @Value("${players.batch-size:1000}") int batchSize) {
+        this.sessions = sessions;
+        this.calendar = calendar;
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreToday() {
+        // según su zona, un jugador puede estar aún en ayer o ya en mañana (hora de Madrid); el día más reciente gana
+        LocalDate today = calendar.today();
+        Query query = Query.query(where("date").in(today.minusDays(1).toString(), today.toString(),
+                today.plusDays(1).toString())).with(Sort.by(Sort.Direction.ASC, "date"));
+        int restored = 0;
+        try (Stream<PlayerDay> stream = mongoTemplate.stream(query, PlayerDay.class)) {
+            Iterator<PlayerDay> it = stream.iterator();
+            while (it.hasNext()) {
+                PlayerDay day = it.next();
+                sessions.restore(Long.parseUnsignedLong(day.getPlayer(), 16), day);
+                restored++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not restore today's player sessions", e);
+        }
+        if (restored > 0) log.info("Restored {} player sessions", restored);
+    }
+
+    @Scheduled(fixedDelayString = "${players.flush-ms:1000}")
+    public void flush() {
+        List<PlayerDay> batch = new ArrayList<>(batchSize);
+        while (sessions.drainDirty(batch, batchSize) > 0) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlayerDay.class);
+            for (PlayerDay day : batch) {
+                bulk.upsert(Query.query(where("_id").is(day.getId())), new Update()
+                        .set("player", day.getPlayer())
+                        .set("date", day.getDate())
+                        .set("attempts", day.getAttempts())
+                        .set("bestCorrect", day.getBestCorrect())
+                        .set("solved", day.isSolved())
+                        .set("firstAttemptSecond", day.getFirstAttemptSecond())
+                        .set("solveAttempts", day.getSolveAttempts())
+                        .set("solveSeconds", day.getSolveSeconds()));
+            }
+            try {
+                bulk.execute();
+            } catch (RuntimeException e) {
+                // la memoria sigue siendo la fuente de verdad; el próximo cambio de estos jugadores lo reintentará
+                log.warn("Could not write {} player sessions: {}", batch.size(), e.getMessage());
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    // últimos días guardados del jugador, el más reciente primero
+    public List<PlayerDay> history(String player, int days) {
+        Query query = Query.query(where("player").is(player))
+                .with(Sort.by(Sort.Direction.DESC, "date"))
+                .limit(days);
+        return mongoTemplate.find(query, PlayerDay.class);
+    }
+}
@@ -0,0 +1,177 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.PlayerDay;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Intentos y mejor resultado de cada jugador (token anónimo de la cabecera X-Player-Token) en el
+ * día de puzzle actual. Todo en memoria, en una {@link PlayerTable} de tamaño fijo: comprobar un
+ * intento no va a Mongo. Cada jugador que cambia se encola una vez para que PlayerSessionWriter
+ * lo guarde en lote. La primera vez que lo resuelve en el día entra en la clasificación (LeaderboardService).
+ */
+@Component
+public class PlayerSessions {
+
+    public static final String HEADER = "X-Player-Token";
+
+    private final PlayerTable table;
+    private final PuzzleCalendar calendar;
+    private final LeaderboardService leaderboards;
+    private final int maxAttempts;
+    private final boolean persist;
+
+    // jugadores con cambios sin escribir (cada uno una vez mientras siga pendiente)
+    private final ConcurrentLinkedQueue<Long> dirty = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger dirtySize = new AtomicInteger();
+    private final LongAdder limited = new LongAdder();
+
+    public PlayerSessions(@Value("${players.capacity:1048576}") int capacity,
+                          @Value("${players.max-attempts:0}") int maxAttempts,
+                          @Value("${players.persist:true}") boolean persist,
+                          PuzzleCalendar calendar, LeaderboardService leaderboards, MeterRegistry registry) {
+        this.table = new PlayerTable(capacity);
+        this.calendar = calendar;
+        this.leaderboards = leaderboards;
+        this.maxAttempts = maxAttempts;
+        this.persist = persist;
+        FunctionCounter.builder("tarkov.players.evictions", table, PlayerTable::evictions).register(registry);
+        FunctionCounter.builder("tarkov.players.limited", limited, LongAdder::sum).register(registry);
+    }
+
+    // 0 = sin límite
+    public int getMaxAttempts() { return maxAttempts; }
+
+    /**
+     * Clave de 64 bits del token: los UUID (lo normal) se mezclan directamente, el resto pasa por sha-256.
+     * Nunca es 0 (hueco vacío en la tabla).
+     */
+    public static long key(String token) {
+        long key;
+        try {
+            UUID uuid = UUID.fromString(token);
+            key = uuid.getMostSignificantBits() ^ Long.rotateLeft(uuid.getLeastSignificantBits(), 32);
+        } catch (IllegalArgumentException e) {
+            try {
+                byte[] d = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                key = 0;
+                for (int i = 0; i < Long.BYTES; i++) key = key << 8 | (d[i] & 0xFF);
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        return key == 0 ? 1 : key;
+    }
+
+    public static String playerId(long key) {
+        return Long.toHexString(key);
+    }
+
+    // cuenta un intento del día de puzzle de su zona; false si ya no le quedan o ya ha jugado un día posterior
+    public boolean tryAttempt(long key, LocalDate day, ZoneId zone) {
+        int d = (int) day.toEpochDay();
+        int second = calendar.secondOfDay(zone);
+        long[] change = table.update(key, d, v -> {
+            if (v == 0) return PlayerTable.pack(d, 1, 0, false, true, second);
+            if (maxAttempts > 0 && PlayerTable.attempts(v) >= maxAttempts) return v;
+            return PlayerTable.pack(d, PlayerTable.attempts(v) + 1, PlayerTable.best(v), PlayerTable.solved(v),
+                    true, PlayerTable.firstSecond(v));
+        });
+        if (change == null || change[0] != 0 && change[0] == change[1]) {
+            limited.increment();
+            return false;
+        }
+        markDirty(key, change);
+        return true;
+    }
+
+    // resultado del intento ya contado con tryAttempt; null si entretanto ha pasado a un día posterior
+    public PlayerDay recordResult(long key, LocalDate day, ZoneId zone, int correctItems, boolean solved) {
+        int d = (int) day.toEpochDay();
+        long[] change = table.update(key, d, v -> PlayerTable.pack(d, PlayerTable.attempts(v),
+                Math.max(PlayerTable.best(v), correctItems), PlayerTable.solved(v) || solved, true,
+                PlayerTable.firstSecond(v)));
+        if (change == null) return null;
+        int score = 0;
+        if (PlayerTable.solved(change[1]) && !PlayerTable.solved(change[0])) {
+            // primera resolución del día: intentos hasta ahora y tiempo desde el primer intento
+            int seconds = Math.max(0, calendar.secondOfDay(zone) - PlayerTable.firstSecond(change[1]));
+            score = DailyLeaderboard.score(PlayerTable.attempts(change[1]), seconds);
+            if (table.setScore(key, d, score)) {
+                leaderboards.record(day, key, DailyLeaderboard.attempts(score), DailyLeaderboard.seconds(score));
+            }
+        }
+        // después de la puntuación: si el escritor lo saca ya, que la lleve
+        markDirty(key, change);
+        return view(key, change[1], score != 0 ? score : table.score(key, d));
+    }
+
+    public Optional<PlayerDay> today(long key, ZoneId zone) {
+        int d = (int) calendar.today(zone).toEpochDay();
+        long v = table.get(key, d);
+        return v == 0 ? Optional.empty() : Optional.of(view(key, v, table.score(key, d)));
+    }
+
+    // puntuación de hoy para el leaderboard (DailyLeaderboard.score), 0 si hoy no lo ha resuelto
+    public int todayScore(long key, ZoneId zone) {
+        return table.score(key, (int) calendar.today(zone).toEpochDay());
+    }
+
+    // al arrancar: vuelve a cargar lo que ya estaba guardado de hoy (sin pisar lo que haya llegado ya)
+    public void restore(long key, PlayerDay saved) {
+        int d = (int) LocalDate.parse(saved.getDate()).toEpochDay();
+        long[] change = table.update(key, d, v -> v != 0 ? v : PlayerTable.pack(d, saved.getAttempts(), saved.getBestCorrect(),
+                saved.isSolved(), false, saved.getFirstAttemptSecond()));
+        if (change == null) return;
+        // la clasificación se recupera de su propio snapshot: aquí sólo la puntuación del jugador
+        if (saved.isSolved() && saved.getSolveAttempts() > 0) {
+            table.setScore(key, d, DailyLeaderboard.score(saved.getSolveAttempts(), saved.getSolveSeconds()));
+        }
+    }
+
+    // saca hasta max jugadores pendientes de escribir; devuelve cuántos
+    public int drainDirty(List<PlayerDay> into, int max) {
+        int n = 0;
+        Long key;
+        while (n < max && (key = dirty.poll()) != null) {
+            dirtySize.decrementAndGet();
+            long v = table.markClean(key);
+            if (v == 0 || !PlayerTable.dirty(v)) continue;
+            into.add(view(key, v, table.score(key, PlayerTable.day(v))));
+            n++;
+        }
+        return n;
+    }
+
+    public int getPendingWrites() { return dirtySize.get(); }
+
+    private void markDirty(long key, long[] change) {
+        if (!persist || PlayerTable.dirty(change[0]) || !PlayerTable.dirty(change[1])) return;
+        // acotada por si el escritor no da abasto: la tabla sigue siendo la fuente de verdad
+        if (dirtySize.incrementAndGet() > table.capacity()) {
+            dirtySize.decrementAndGet();
+            return;
+        }
+        dirty.offer(key);
+    }
+
+    private static PlayerDay view(long key, long v, int score) {
+        return new PlayerDay(playerId(key), LocalDate.ofEpochDay(PlayerTable.day(v)).toString(),
+                PlayerTable.attempts(v), PlayerTable.best(v), PlayerTable.solved(v), PlayerTable.firstSecond(v),
+                score == 0 ? 0 : DailyLeaderboard.attempts(score), score == 0 ? 0 : DailyLeaderboard.seconds(score));
+    }
+}
@@ -0,0 +1,206 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Estado diario por jugador en arrays primitivos de tamaño fijo: un long de clave, un long de valor
+ * y un int con la puntuación del leaderboard por hueco (20 bytes), con direccionamiento abierto y locks por segmento. No crece nunca:
+ * si no queda hueco en los PROBES posiciones de una clave, se expulsa al jugador con menos intentos
+ * (antes uno sin resolver que uno resuelto).
+ *
+ * El valor lleva el día dentro, así que el cambio de día no recorre nada: una entrada de otro día
+ * cuenta como vacía al leerla y su hueco se reutiliza. El día de una clave sólo avanza: cambiando de zona
+ * no se puede volver a un día anterior (ni reiniciar sus intentos ni puntuarlo otra vez).
+ *
+ * Valor: día (20 bits, epoch day) | intentos (12) | mejor nº de aciertos (12) | resuelto (1)
+ *        | pendiente de escribir (1) | segundo del día del primer intento (17)
+ */
+final class PlayerTable {
+
+    static final int PROBES = 16;
+    private static final int SEGMENTS = 256;
+
+    private static final int DAY_SHIFT = 43;
+    private static final int ATTEMPTS_SHIFT = 31;
+    private static final int BEST_SHIFT = 19;
+    private static final long SOLVED = 1L << 18;
+    private static final long DIRTY = 1L << 17;
+    private static final long FIELD_12 = 0xFFF;
+    private static final long SECOND_MASK = (1L << 17) - 1;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder evictions = new LongAdder();
+
+    PlayerTable(int capacity) {
+        // potencia de dos por segmento, redondeando hacia arriba
+        int wanted = Math.max(PROBES, capacity / SEGMENTS);
+        int perSegment = Integer.highestOneBit(wanted * 2 - 1);
+        for (int s = 0; s < SEGMENTS; s++) segments[s] = new Segment(perSegment);
+    }
+
+    int capacity() { return segments.length * segments[0].keys.length; }
+    long evictions() { return evictions.sum(); }
+
+    // valor de hoy para la clave (0 si no hay, o si es de otro día)
+    long get(long key, int day) {
+        long mixed = mix(key);
+        return segment(mixed).get(key, (int) mixed, day);
+    }
+
+    /**
+     * Aplica fn al valor de hoy (0 si no había) y guarda lo que devuelva; devuelve {antes, después}.
+     * Devuelve null sin llamar a fn si la clave ya tiene un día posterior.
+     * fn se ejecuta con el segmento bloqueado: tiene que ser corto y sin efectos fuera.
+     */
+    long[] update(long key, int day, LongUnaryOperator fn) {
+        long mixed = mix(key);
+        return segment(mixed).update(key, (int) mixed, day, fn, evictions);
+    }
+
+    // puntuación de hoy (DailyLeaderboard.score), 0 si no ha resuelto o no está
+    int score(long key, int day) {
+        long mixed = mix(key);
+        return segment(mixed).score(key, (int) mixed, day);
+    }
+
+    // guarda la puntuación si la entrada de hoy existe y aún no tenía; true si la ha guardado
+    boolean setScore(long key, int day, int score) {
+        long mixed = mix(key);
+        return segment(mixed).setScore(key, (int) mixed, day, score);
+    }
+
+    // quita la marca de pendiente y devuelve el valor que había (sea del día que sea), 0 si ya no está
+    long markClean(long key) {
+        long mixed = mix(key);
+        return segment(mixed).markClean(key, (int) mixed);
+    }
+
+    private Segment segment(long mixed) {
+        return segments[(int) (mixed >>> 56) & (SEGMENTS - 1)];
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Segment {
+        private final long[] keys;
+        private final long[] values;
+        private final int[] scores;
+        private final int mask;
+
+        Segment(int size) {
+            keys = new long[size];
+            values = new long[size];
+            scores = new int[size];
+            mask = size - 1;
+        }
+
+        synchronized long get(long key, int hash, int day) {
+            for (int p = 0; p < PROBES; p++) {
+                int i = (hash + p) & mask;
+                if (keys[i] == key) return day(values[i]) == day ? values[i] : 0;
+                if (keys[i] == 0) return 0;
+            }
+            return 0;
+        }
+
+        synchronized long[] update(long key, int hash, int day, LongUnaryOperator fn, LongAdder evictions) {
+            int free = -1;
+            int victim = -1;
+            for (int p = 0; p < PROBES; p++) {
+                int i = (hash + p) & mask;
+                if (keys[i] == key) {
+                    int stored = day(values[i]);
+                    if (stored > day) return null;
+                    long before = stored == day ? values[i] : 0;
+                    return store(i, key, before, fn.applyAsLong(before));
+                }
+                if (keys[i] == 0) {
+                    if (free < 0) free = i;
+                    break;
+                }
+                // de otro día: se puede reutilizar (pero la clave aún podría estar más adelante)
+                if (day(values[i]) != day) {
+                    if (free < 0) free = i;
+                } else if (victim < 0 || evictFirst(values[i], values[victim])) {
+                    victim = i;
+                }
+            }
+            if (free < 0) {
+                evictions.increment();
+                free = victim;
+            }
+            return store(free, key, 0, fn.applyAsLong(0));
+        }
+
+        // expulsar a uno resuelto le dejaría volver a puntuar el mismo día: primero los que no lo han resuelto
+        private static boolean evictFirst(long v, long than) {
+            if (solved(v) != solved(than)) return !solved(v);
+            return attempts(v) < attempts(than);
+        }
+
+        private long[] store(int i, long key, long before, long after) {
+            // entrada nueva (o hueco reutilizado): la puntuación que hubiera era de otro jugador u otro día
+            if (before == 0) scores[i] = 0;
+            keys[i] = key;
+            values[i] = after;
+            return new long[]{before, after};
+        }
+
+        synchronized int score(long key, int hash, int day) {
+            for (int p = 0; p < PROBES; p++) {
+                int i = (hash + p) & mask;
+                if (keys[i] == key) return day(values[i]) == day ? scores[i] : 0;
+                if (keys[i] == 0) return 0;
+            }
+            return 0;
+        }
+
+        synchronized boolean setScore(long key, int hash, int day, int score) {
+            for (int p = 0; p < PROBES; p++) {
+                int i = (hash + p) & mask;
+                if (keys[i] == key) {
+                    if (day(values[i]) != day || scores[i] != 0) return false;
+                    scores[i] = score;
+                    return true;
+                }
+                if (keys[i] == 0) return false;
+            }
+            return false;
+        }
+
+        synchronized long markClean(long key, int hash) {
+            for (int p = 0; p < PROBES; p++) {
+                int i = (hash + p) & mask;
+                if (keys[i] == key) {
+                    long before = values[i];
+                    values[i] = before & ~DIRTY;
+                    return before;
+                }
+                if (keys[i] == 0) return 0;
+            }
+            return 0;
+        }
+    }
+
+    // --- campos del valor ---
+
+    static long pack(int day, int attempts, int best, boolean solved, boolean dirty, int firstSecond) {
+        return (long) day << DAY_SHIFT
+                | Math.min(attempts, FIELD_12) << ATTEMPTS_SHIFT
+                | Math.min(best, FIELD_12) << BEST_SHIFT
+                | (solved ? SOLVED : 0)
+                | (dirty ? DIRTY : 0)
+                | (firstSecond & SECOND_MASK);
+    }
+
+    static int day(long v) { return (int) (v >>> DAY_SHIFT); }
+    static int attempts(long v) { return (int) (v >>> ATTEMPTS_SHIFT & FIELD_12); }
+    static int best(long v) { return (int) (v >>> BEST_SHIFT & FIELD_12); }
+    static boolean solved(long v) { return (v & SOLVED) != 0; }
+    static boolean dirty(long v) { return (v & DIRTY) != 0; }
+    static int firstSecond(long v) { return (int) (v & SECOND_MASK); }
+}
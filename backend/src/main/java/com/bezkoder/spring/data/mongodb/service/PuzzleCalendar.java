@@ -0,0 +1,123 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Día del puzzle según la zona horaria del jugador (cabecera X-Puzzle-Zone): cada zona cambia de día
+ * a su medianoche, y todas las que están en la misma fecha juegan el mismo grid.
+ *
+ * Recuerda las zonas desde las que se está jugando para saber qué días tienen que estar en memoria
+ * (hoy y mañana de cada una); las que llevan tiempo sin jugar se olvidan.
+ */
+@Component
+public class PuzzleCalendar {
+
+    public static final String HEADER = "X-Puzzle-Zone";
+
+    // zona por defecto (sin cabecera o con una zona desconocida) y la de las tareas programadas
+    public static final ZoneId ZONE = ZoneId.of("Europe/Madrid");
+
+    // sólo regiones del tzdb (p.ej. "America/Bogota"): no se aceptan offsets sueltos
+    private static final Set<String> REGIONS = ZoneId.getAvailableZoneIds();
+    private static final long TOUCH_EVERY_MS = 60_000;
+
+    private final Clock clock;
+    private final Duration staleAfter;
+    private final Map<String, ZoneId> resolved = new ConcurrentHashMap<>();
+    // zona -> última vez (epoch ms) que llegó una petición desde ella
+    private final Map<ZoneId, AtomicLong> active = new ConcurrentHashMap<>();
+
+    public PuzzleCalendar(Clock clock) {
+        this(clock, Duration.ofHours(26));
+    }
+
+    @Autowired
+    public PuzzleCalendar(Clock clock, @Value("${puzzle.zones.stale-after:26h}") Duration staleAfter) {
+        this.clock = clock;
+        this.staleAfter = staleAfter;
+        active.put(ZONE, new AtomicLong(Long.MAX_VALUE));
+    }
+
+    /**
+     * Zona de la petición (valor de la cabecera, puede ser null) y la marca como activa.
+     * Si no es una región conocida se usa la zona por defecto.
+     */
+    public ZoneId zoneFor(String header) {
+        ZoneId zone = resolve(header);
+        long now = clock.millis();
+        AtomicLong seen = active.computeIfAbsent(zone, z -> new AtomicLong());
+        // como mucho una escritura por zona y minuto
+        long last = seen.get();
+        if (last != Long.MAX_VALUE && now - last > TOUCH_EVERY_MS) seen.compareAndSet(last, now);
+        return zone;
+    }
+
+    private ZoneId resolve(String id) {
+        if (id == null || id.isBlank()) return ZONE;
+        ZoneId zone = resolved.get(id);
+        if (zone != null) return zone;
+        // sólo se guardan las válidas: el mapa no crece con lo que mande el cliente
+        return REGIONS.contains(id) ? resolved.computeIfAbsent(id, ZoneId::of) : ZONE;
+    }
+
+    public LocalDate today() {
+        return today(ZONE);
+    }
+
+    public LocalDate today(ZoneId zone) {
+        return LocalDate.now(clock.withZone(zone));
+    }
+
+    // segundos desde la medianoche del día de puzzle actual
+    public int secondOfDay() {
+        return secondOfDay(ZONE);
+    }
+
+    public int secondOfDay(ZoneId zone) {
+        return LocalTime.now(clock.withZone(zone)).toSecondOfDay();
+    }
+
+    public LocalDate tomorrow() {
+        return today().plusDays(1);
+    }
+
+    public Set<ZoneId> activeZones() {
+        return Set.copyOf(active.keySet());
+    }
+
+    // hoy y mañana de cada zona activa: los días que merecen estar en memoria
+    public Set<String> liveDates() {
+        Set<String> dates = new TreeSet<>();
+        for (ZoneId zone : active.keySet()) {
+            LocalDate today = today(zone);
+            dates.add(today.toString());
+            dates.add(today.plusDays(1).toString());
+        }
+        return dates;
+    }
+
+    public boolean isLive(String date) {
+        return liveDates().contains(date);
+    }
+
+    // olvida las zonas sin peticiones desde hace staleAfter (la zona por defecto nunca); devuelve cuántas
+    public int evictStaleZones() {
+        long oldest = clock.millis() - staleAfter.toMillis();
+        int before = active.size();
+        active.values().removeIf(seen -> seen.get() < oldest);
+        return before - active.size();
+    }
+}
@@ -0,0 +1,103 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.service.PlacementEngine.Placement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generador determinista: la misma fecha (y la misma semilla configurada) con el mismo catálogo
+ * produce siempre el mismo grid, en cualquier nodo y en cualquier orden.
+ *
+ * Cada candidato se puntúa con {@link PackingCounter} (cuántas colocaciones válidas tienen sus items):
+ * los que tienen más de 'max-solutions' se descartan y se prueba la siguiente semilla, hasta 'candidates'.
+ * Si ninguno baja del límite se usa el menos ambiguo. Con max-solutions=0 no se cuenta: vale el primero.
+ */
+@Component
+public class PuzzleGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(PuzzleGenerator.class);
+
+    private final PlacementEngine engine;
+    private final PackingCounter counter;
+    private final String seed;
+    private final int candidates;
+    private final long maxSolutions;
+    private final long solutionLimit;
+    private final long solverMaxStates;
+
+    public PuzzleGenerator(@Value("${puzzle.grid.width:3}") int width,
+                           @Value("${puzzle.grid.height:3}") int height,
+                           @Value("${puzzle.grid.rotation:false}") boolean rotation,
+                           @Value("${puzzle.seed:}") String seed,
+                           @Value("${puzzle.generation.candidates:32}") int candidates,
+                           @Value("${puzzle.generation.max-solutions:8}") long maxSolutions,
+                           @Value("${puzzle.generation.solution-limit:1000000}") long solutionLimit,
+                           @Value("${puzzle.generation.solver-max-states:50000}") long solverMaxStates) {
+        this.engine = new PlacementEngine(width, height, rotation);
+        this.counter = new PackingCounter(width, height, rotation);
+        this.seed = seed == null ? "" : seed;
+        this.candidates = Math.max(1, candidates);
+        this.maxSolutions = maxSolutions;
+        this.solutionLimit = solutionLimit;
+        this.solverMaxStates = solverMaxStates;
+    }
+
+    public PlacementEngine engine() { return engine; }
+
+    public long seedFor(String date) {
+        return UUID.nameUUIDFromBytes((seed + ":" + date).getBytes(StandardCharsets.UTF_8)).getMostSignificantBits();
+    }
+
+    // items: catálogo completo, en cualquier orden (se ordena por id antes de barajar)
+    public SolutionGrid generate(String date, List<Item> items) {
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(Item::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        SolutionGrid best = null;
+        for (int attempt = 0; attempt < candidates; attempt++) {
+            // el primer candidato usa la semilla de la fecha tal cual
+            List<Item> shuffled = new ArrayList<>(sorted);
+            Collections.shuffle(shuffled, new Random(seedFor(attempt == 0 ? date : date + "#" + attempt)));
+            List<Placement> placements = engine.pack(shuffled);
+            SolutionGrid sg = engine.toSolutionGrid(date, placements);
+            // sin límite no hay nada que comprobar
+            if (maxSolutions <= 0) return sg;
+
+            PackingCounter.Result score = counter.count(placedItems(placements), solutionLimit, solverMaxStates);
+            sg.setSolutionCount(score.isComplete() ? score.getCount() : null);
+
+            // suficientemente único: no hace falta seguir probando
+            if (sg.getSolutionCount() != null && sg.getSolutionCount() <= maxSolutions) return sg;
+            if (best == null || fewerSolutions(sg, best)) best = sg;
+        }
+        log.warn("No grid for {} with at most {} solutions in {} candidates; using the least ambiguous ({})",
+                date, maxSolutions, candidates, best.getSolutionCount() == null ? "unknown" : best.getSolutionCount());
+        return best;
+    }
+
+    private static List<Item> placedItems(List<Placement> placements) {
+        List<Item> placed = new ArrayList<>(placements.size());
+        for (Placement p : placements) {
+            placed.add(new Item(p.getItemId(), null, null, null, p.getWidth(), p.getHeight()));
+        }
+        return placed;
+    }
+
+    // un recuento desconocido (presupuesto agotado) cuenta como el peor
+    private static boolean fewerSolutions(SolutionGrid a, SolutionGrid b) {
+        if (a.getSolutionCount() == null) return false;
+        return b.getSolutionCount() == null || a.getSolutionCount() < b.getSolutionCount();
+    }
+}
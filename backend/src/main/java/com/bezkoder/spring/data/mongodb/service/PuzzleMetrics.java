@@ -0,0 +1,75 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas del juego (se exportan en /actuator/prometheus).
+ * Todos los meters se registran una vez aquí: en el camino caliente sólo se incrementa.
+ */
+@Component
+public class PuzzleMetrics {
+
+    private final Timer guessTimer;
+    private final Counter guessSolved;
+    private final Counter guessUnsolved;
+    private final Counter guessInvalid;
+
+    private final Counter lookupFound;
+    private final Counter lookupGenerated;
+    private final Counter lookupRepaired;
+    private final Timer generationTimer;
+
+    public PuzzleMetrics(MeterRegistry registry, SolutionGridCache cache) {
+        this.guessTimer = Timer.builder("tarkov.guess")
+                .description("Latency of POST /api/guess evaluation")
+                .register(registry);
+        this.guessSolved = guessResult(registry, "solved");
+        this.guessUnsolved = guessResult(registry, "unsolved");
+        this.guessInvalid = guessResult(registry, "invalid");
+
+        this.lookupFound = lookup(registry, "found");
+        this.lookupGenerated = lookup(registry, "generated");
+        this.lookupRepaired = lookup(registry, "repaired");
+        FunctionCounter.builder("tarkov.solution.lookups", cache, SolutionGridCache::getHits)
+                .tag("source", "cache")
+                .register(registry);
+        FunctionCounter.builder("tarkov.solution.cache.misses", cache, SolutionGridCache::getMisses)
+                .register(registry);
+
+        this.generationTimer = Timer.builder("tarkov.solution.generation")
+                .description("Time to generate (and score) a daily grid")
+                .register(registry);
+    }
+
+    private static Counter guessResult(MeterRegistry registry, String result) {
+        return Counter.builder("tarkov.guess.results").tag("result", result).register(registry);
+    }
+
+    private static Counter lookup(MeterRegistry registry, String source) {
+        return Counter.builder("tarkov.solution.lookups").tag("source", source).register(registry);
+    }
+
+    public void guessEvaluated(long startNanos, boolean solved) {
+        guessTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        (solved ? guessSolved : guessUnsolved).increment();
+    }
+
+    public void guessRejected() {
+        guessInvalid.increment();
+    }
+
+    // lecturas de Mongo en findOrCreateForDate (los aciertos de cache se cuentan en la propia cache)
+    public void solutionFound() { lookupFound.increment(); }
+    public void solutionGenerated() { lookupGenerated.increment(); }
+    public void solutionRepaired() { lookupRepaired.increment(); }
+
+    public void generationTook(long startNanos) {
+        generationTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
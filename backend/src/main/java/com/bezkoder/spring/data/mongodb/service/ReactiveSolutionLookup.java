@@ -0,0 +1,53 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.repository.ReactiveSolutionGridRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Búsqueda de la solución sin bloquear hilos: acierto de cache -> inmediato;
+ * fallo -> lectura con el driver reactivo (el hilo del servlet queda libre mientras Mongo responde).
+ * Sólo si el día no existe se cae al camino bloqueante de generación, en el scheduler elástico.
+ */
+@Service
+@ConditionalOnProperty(name = "guess.pipeline", havingValue = "reactive")
+public class ReactiveSolutionLookup {
+
+    private final SolutionGridCache cache;
+    private final ReactiveSolutionGridRepository repository;
+    private final SolutionGridService solutionGridService;
+    private final Duration timeout;
+
+    // una sola lectura en vuelo por fecha; el resto se suscribe a la misma
+    private final ConcurrentHashMap<String, Mono<CompiledSolution>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveSolutionLookup(SolutionGridCache cache, ReactiveSolutionGridRepository repository,
+                                  SolutionGridService solutionGridService,
+                                  @Value("${guess.reactive.timeout-ms:2000}") long timeoutMs) {
+        this.cache = cache;
+        this.repository = repository;
+        this.solutionGridService = solutionGridService;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    public Mono<CompiledSolution> solutionForDate(LocalDate date) {
+        String dateStr = date.toString();
+        CompiledSolution cached = cache.get(dateStr);
+        if (cached != null) return Mono.just(cached);
+
+        return inFlight.computeIfAbsent(dateStr, d -> repository.findByDate(d)
+                .map(solutionGridService::adoptLoaded)
+                .switchIfEmpty(Mono.fromCallable(() -> solutionGridService.solutionForDate(date))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .timeout(timeout)
+                .doFinally(signal -> inFlight.remove(d))
+                .cache());
+    }
+}
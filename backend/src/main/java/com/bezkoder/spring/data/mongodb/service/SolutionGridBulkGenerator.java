@@ -0,0 +1,103 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Genera de golpe las soluciones de un rango de fechas (p.ej. una temporada entera):
+ * la generación se reparte entre núcleos con fork-join y se inserta en el almacén de una vez.
+ */
+@Service
+public class SolutionGridBulkGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SolutionGridBulkGenerator.class);
+
+    public static final int MAX_DAYS = 3660;
+    // por debajo de este número de fechas no compensa partir la tarea
+    private static final int SEQUENTIAL_THRESHOLD = 32;
+
+    private final SolutionGridStore store;
+    private final PuzzleGenerator generator;
+    private final ItemService itemService;
+
+    public SolutionGridBulkGenerator(SolutionGridStore store, PuzzleGenerator generator,
+                                     ItemService itemService) {
+        this.store = store;
+        this.generator = generator;
+        this.itemService = itemService;
+    }
+
+    public Map<String, Object> generateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Invalid date range " + from + ".." + to);
+        }
+        long start = System.nanoTime();
+
+        // las fechas que ya existen no se tocan
+        Set<String> existing = store.datesBetween(from.toString(), to.toString());
+        List<String> missing = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            if (!existing.contains(d.toString())) missing.add(d.toString());
+        }
+
+        // sin items saldrían grids vacíos, y el índice único sobre 'date' los dejaría ahí para siempre
+        List<Item> items = itemService.findAll();
+        if (items.isEmpty()) throw new IllegalStateException("No items to generate solutions from");
+
+        List<SolutionGrid> generated = ForkJoinPool.commonPool()
+                .invoke(new GenerateTask(generator, items, missing));
+
+        int inserted = store.insertAll(generated);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("existing", existing.size());
+        result.put("generated", generated.size());
+        result.put("inserted", inserted);
+        result.put("millis", (System.nanoTime() - start) / 1_000_000);
+        log.info("Bulk solution generation {}", result);
+        return result;
+    }
+
+    private static final class GenerateTask extends RecursiveTask<List<SolutionGrid>> {
+        private final PuzzleGenerator generator;
+        private final List<Item> items;
+        private final List<String> dates;
+
+        GenerateTask(PuzzleGenerator generator, List<Item> items, List<String> dates) {
+            this.generator = generator;
+            this.items = items;
+            this.dates = dates;
+        }
+
+        @Override
+        protected List<SolutionGrid> compute() {
+            if (dates.size() <= SEQUENTIAL_THRESHOLD) {
+                List<SolutionGrid> out = new ArrayList<>(dates.size());
+                for (String date : dates) out.add(generator.generate(date, items));
+                return out;
+            }
+            int mid = dates.size() / 2;
+            GenerateTask left = new GenerateTask(generator, items, dates.subList(0, mid));
+            GenerateTask right = new GenerateTask(generator, items, dates.subList(mid, dates.size()));
+            left.fork();
+            List<SolutionGrid> out = new ArrayList<>(right.compute());
+            out.addAll(0, left.join());
+            return out;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache en memoria de las soluciones diarias (hoy y mañana).
+ * La solución sólo cambia una vez al día, así que el endpoint de guess no necesita ir a Mongo.
+ */
+@Component
+public class SolutionGridCache {
+
+    private final ConcurrentHashMap<String, CompiledSolution> grids = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CompiledSolution get(String date) {
+        CompiledSolution solution = grids.get(date);
+        if (solution != null) hits.increment();
+        else misses.increment();
+        return solution;
+    }
+
+    // como get() pero sin contar en las estadísticas
+    public CompiledSolution peek(String date) {
+        return grids.get(date);
+    }
+
+    public void put(CompiledSolution solution) {
+        if (solution == null || solution.getDate() == null) return;
+        grids.put(solution.getDate(), solution);
+    }
+
+    public void evict(String date) {
+        if (date != null) grids.remove(date);
+    }
+
+    public void clear() {
+        grids.clear();
+    }
+
+    // descarta todo lo que no sean las fechas indicadas (rollover de medianoche)
+    public void retain(Collection<String> dates) {
+        grids.keySet().retainAll(dates);
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public Set<String> getDates() { return new TreeSet<>(grids.keySet()); }
+}
@@ -0,0 +1,29 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// si alguien modifica un documento de solution_grids, la copia en memoria deja de ser válida
+@Component
+public class SolutionGridCacheInvalidator extends AbstractMongoEventListener<SolutionGrid> {
+
+    private final SolutionGridCache cache;
+
+    public SolutionGridCacheInvalidator(SolutionGridCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<SolutionGrid> event) {
+        cache.evict(event.getSource().getDate());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<SolutionGrid> event) {
+        // el evento sólo trae el filtro, no la fecha: invalidamos todo
+        cache.clear();
+    }
+}
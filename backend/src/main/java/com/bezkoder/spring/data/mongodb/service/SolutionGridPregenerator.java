@@ -0,0 +1,46 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// genera con antelación las soluciones de los próximos días para que la medianoche nunca genere en caliente
+@Component
+public class SolutionGridPregenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SolutionGridPregenerator.class);
+
+    private final SolutionGridService solutionGridService;
+    private final PuzzleCalendar calendar;
+    private final int days;
+
+    public SolutionGridPregenerator(SolutionGridService solutionGridService, PuzzleCalendar calendar,
+                                    @Value("${solution.pregenerate.days:7}") int days) {
+        this.solutionGridService = solutionGridService;
+        this.calendar = calendar;
+        this.days = days;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            pregenerate();
+        } catch (RuntimeException e) {
+            log.warn("Could not pregenerate solution grids on startup", e);
+        }
+    }
+
+    @Scheduled(cron = "${solution.pregenerate.cron:0 0 3 * * *}", zone = "Europe/Madrid")
+    public void pregenerate() {
+        LocalDate today = calendar.today();
+        for (int i = 0; i <= days; i++) {
+            solutionGridService.findOrCreateForDate(today.plusDays(i));
+        }
+    }
+}
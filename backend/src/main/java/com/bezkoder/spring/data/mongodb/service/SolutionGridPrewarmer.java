@@ -0,0 +1,57 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Mantiene en la cache hoy y mañana de cada zona horaria desde la que se juega: el grid de mañana de una zona
+ * ya está en memoria mucho antes de su medianoche, y cada cambio de día sólo carga la fecha nueva.
+ * Los rollovers de las distintas zonas caen en momentos distintos, así que no hay un único pico de carga.
+ */
+@Component
+public class SolutionGridPrewarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(SolutionGridPrewarmer.class);
+
+    private final SolutionGridService solutionGridService;
+    private final SolutionGridCache cache;
+    private final PuzzleCalendar calendar;
+
+    public SolutionGridPrewarmer(SolutionGridService solutionGridService, SolutionGridCache cache,
+                                 PuzzleCalendar calendar) {
+        this.solutionGridService = solutionGridService;
+        this.cache = cache;
+        this.calendar = calendar;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            prewarm();
+        } catch (RuntimeException e) {
+            // sin la cache caliente seguimos funcionando: la primera petición la cargará
+            log.warn("Could not prewarm solution cache on startup", e);
+        }
+    }
+
+    // cada minuto: como mucho carga la fecha nueva de una zona que acaba de cambiar de día (o que aparece)
+    @Scheduled(fixedDelayString = "${solution.cache.prewarm-ms:60000}", initialDelayString = "${solution.cache.prewarm-ms:60000}")
+    public void prewarm() {
+        int evicted = calendar.evictStaleZones();
+        if (evicted > 0) log.info("Forgot {} idle time zones", evicted);
+
+        Set<String> live = calendar.liveDates();
+        // fuera los días en los que ya no está ninguna zona activa
+        cache.retain(live);
+        for (String date : live) {
+            if (cache.peek(date) == null) solutionGridService.findOrCreateForDate(LocalDate.parse(date));
+        }
+    }
+}
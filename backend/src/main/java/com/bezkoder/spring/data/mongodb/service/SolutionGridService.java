@@ -2,129 +2,175 @@ package com.bezkoder.spring.data.mongodb.service;
 
 import com.bezkoder.spring.data.mongodb.model.Item;
 import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
-import com.bezkoder.spring.data.mongodb.repository.SolutionGridRepository;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridStore;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class SolutionGridService {
 
-    private final SolutionGridRepository repository;
+    private final SolutionGridStore repository;
     private final ItemService itemService; // tu servicio existente para items
+    private final SolutionGridCache cache;
+    private final PuzzleCalendar calendar;
+    private final PuzzleGenerator generator;
+    private final PuzzleMetrics metrics;
 
-    public SolutionGridService(SolutionGridRepository repository, ItemService itemService) {
+    // generaciones/cargas en curso por fecha: los que llegan después esperan a la misma
+    private final ConcurrentHashMap<String, CompletableFuture<CompiledSolution>> inFlight = new ConcurrentHashMap<>();
+
+    public SolutionGridService(SolutionGridStore repository, ItemService itemService,
+                               SolutionGridCache cache, PuzzleCalendar calendar, PuzzleGenerator generator,
+                               PuzzleMetrics metrics) {
         this.repository = repository;
         this.itemService = itemService;
+        this.cache = cache;
+        this.calendar = calendar;
+        this.generator = generator;
+        this.metrics = metrics;
     }
 
     public SolutionGrid findOrCreateForToday() {
-        LocalDate today = LocalDate.now(ZoneId.of("Europe/Madrid"));
-        return findOrCreateForDate(today);
+        return findOrCreateForDate(calendar.today());
     }
 
     public SolutionGrid findOrCreateForDate(LocalDate date) {
+        return solutionForDate(date).getGrid();
+    }
+
+    // forma compilada de la solución (la que usa el endpoint de guess)
+    public CompiledSolution solutionForDate(LocalDate date) {
         String dateStr = date.toString(); // ISO yyyy-MM-dd
-        Optional<SolutionGrid> found = repository.findByDate(dateStr);
-        if (found.isPresent()) {
-            SolutionGrid sg = found.get();
-            // asegura que 'cells' esté poblado (compatibilidad con documentos antiguos)
-            if (sg.getCells() == null || sg.getCells().size() != 9) {
-                populateCellsFromMainCells(sg);
-                repository.save(sg);
+        CompiledSolution cached = cache.get(dateStr);
+        if (cached != null) return cached;
+
+        return loadSingleFlight(dateStr);
+    }
+
+    private CompiledSolution loadSingleFlight(String dateStr) {
+        CompletableFuture<CompiledSolution> mine = new CompletableFuture<>();
+        CompletableFuture<CompiledSolution> running = inFlight.putIfAbsent(dateStr, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+        try {
+            // otro hilo pudo terminar justo antes de registrarnos
+            CompiledSolution solution = cache.peek(dateStr);
+            if (solution == null) {
+                solution = CompiledSolution.compile(loadOrGenerate(dateStr));
+                // sólo guardamos en memoria los días "vivos" (hoy y mañana)
+                if (calendar.isLive(dateStr)) cache.put(solution);
             }
-            return sg;
+            mine.complete(solution);
+            return solution;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(dateStr, mine);
+        }
+    }
+
+    // solución de un día que ya existe, sin generarla si no está (p.ej. para re-puntuar históricos)
+    public Optional<CompiledSolution> existingSolutionForDate(LocalDate date) {
+        CompiledSolution cached = cache.peek(date.toString());
+        if (cached != null) return Optional.of(cached);
+        return load(date.toString()).map(CompiledSolution::compile);
+    }
+
+    /**
+     * Para quien ya ha leído el documento por su cuenta (p.ej. el driver reactivo):
+     * lo repara si es antiguo, lo compila y lo deja en la cache si es un día vivo.
+     */
+    public CompiledSolution adoptLoaded(SolutionGrid sg) {
+        CompiledSolution solution = CompiledSolution.compile(repairIfLegacy(sg));
+        if (calendar.isLive(solution.getDate())) cache.put(solution);
+        return solution;
+    }
+
+    private Optional<SolutionGrid> load(String dateStr) {
+        return repository.findByDate(dateStr).map(this::repairIfLegacy);
+    }
+
+    private SolutionGrid repairIfLegacy(SolutionGrid sg) {
+        // asegura que 'cells' esté poblado (compatibilidad con documentos antiguos);
+        // sólo en memoria: LegacyGridMigration es quien lo persiste
+        if (sg.getCells() == null || sg.getCells().size() != sg.getWidth() * sg.getHeight()) {
+            populateCellsFromMainCells(sg);
+            metrics.solutionRepaired();
+        } else {
+            metrics.solutionFound();
         }
+        return sg;
+    }
+
+    private SolutionGrid loadOrGenerate(String dateStr) {
+        Optional<SolutionGrid> found = load(dateStr);
+        if (found.isPresent()) return found.get();
 
+        long start = System.nanoTime();
         SolutionGrid generated = generateSolutionForDate(dateStr);
-        return repository.save(generated);
+        metrics.generationTook(start);
+        metrics.solutionGenerated();
+        try {
+            return repository.insert(generated);
+        } catch (DuplicateKeyException e) {
+            // otro nodo la ha generado a la vez: el índice único sobre 'date' decide, usamos la suya
+            return repository.findByDate(dateStr).orElseThrow(() -> e);
+        }
     }
 
+    // documentos antiguos sin 'cells': se reconstruyen en memoria con el catálogo (sin ir a Mongo por item)
     private void populateCellsFromMainCells(SolutionGrid sg) {
+        sg.setCells(cellsFromMainCells(sg, itemService.catalog()));
+    }
+
+    public static List<String> cellsFromMainCells(SolutionGrid sg, ItemCatalog catalog) {
+        int width = sg.getWidth();
+        int height = sg.getHeight();
+        int size = width * height;
         List<String> main = sg.getMainCells();
         List<String> cells = new ArrayList<>();
-        for (int i = 0; i < 9; i++) cells.add(null);
+        for (int i = 0; i < size; i++) cells.add(null);
 
-        if (main == null) {
-            sg.setCells(cells);
-            return;
-        }
+        if (main == null) return cells;
 
-        for (int start = 0; start < 9; start++) {
+        for (int start = 0; start < size && start < main.size(); start++) {
             String itemId = main.get(start);
             if (itemId == null) continue;
             // obtener item para conocer w/h (si existe)
-            Optional<Item> maybeItem = itemService.findById(itemId);
-            if (!maybeItem.isPresent()) {
-                // si no existe el item en la BBDD, ponemos solo la main cell
+            Item item = catalog.get(itemId);
+            if (item == null) {
+                // si no existe el item en el catálogo, ponemos solo la main cell
                 cells.set(start, itemId);
                 continue;
             }
-            Item item = maybeItem.get();
             int w = Math.max(1, item.getWidth());
             int h = Math.max(1, item.getHeight());
-            int row = start / 3;
-            int col = start % 3;
-            for (int r = row; r < row + h; r++) {
-                for (int c = col; c < col + w; c++) {
-                    int idx = r * 3 + c;
-                    if (idx >= 0 && idx < 9) cells.set(idx, itemId);
+            int row = start / width;
+            int col = start % width;
+            for (int r = row; r < row + h && r < height; r++) {
+                for (int c = col; c < col + w && c < width; c++) {
+                    cells.set(r * width + c, itemId);
                 }
             }
         }
-        sg.setCells(cells);
+        return cells;
     }
 
     private SolutionGrid generateSolutionForDate(String dateStr) {
-        List<Item> items = itemService.findAll();
-        // determinismo por fecha (sacar o no semilla según prefieras)
-        //Collections.shuffle(items, new Random(dateStr.hashCode()));
-        Collections.shuffle(items, new Random());
-        
-        boolean[] occupied = new boolean[9]; // 3x3 flattened
-        List<String> mainCells = new ArrayList<>();
-        List<String> cells = new ArrayList<>();
-        for (int i = 0; i < 9; i++) { mainCells.add(null); cells.add(null); }
-
-        for (Item item : items) {
-            int w = Math.max(1, item.getWidth());
-            int h = Math.max(1, item.getHeight());
-
-            boolean placed = false;
-            for (int row = 0; row <= 3 - h && !placed; row++) {
-                for (int col = 0; col <= 3 - w && !placed; col++) {
-                    // comprobar solapamiento
-                    boolean ok = true;
-                    for (int r = row; r < row + h && ok; r++) {
-                        for (int c = col; c < col + w; c++) {
-                            int idx = r * 3 + c;
-                            if (occupied[idx]) { ok = false; break; }
-                        }
-                    }
-                    if (ok) {
-                        // marcar ocupadas las celdas cubiertas
-                        for (int r = row; r < row + h; r++) {
-                            for (int c = col; c < col + w; c++) {
-                                int idx = r * 3 + c;
-                                occupied[idx] = true;
-                                cells.set(idx, item.getId()); // <-- marcamos la celda cubierta
-                            }
-                        }
-                        // guardar el itemId en la main cell (row*3+col)
-                        int startIdx = row * 3 + col;
-                        mainCells.set(startIdx, item.getId());
-                        placed = true;
-                    }
-                }
-            }
-        }
-
-        SolutionGrid sg = new SolutionGrid();
-        sg.setDate(dateStr);
-        sg.setMainCells(mainCells);
-        sg.setCells(cells);
-        return sg;
+        // determinismo por fecha: cualquier nodo genera el mismo grid para el mismo día
+        return generator.generate(dateStr, itemService.findAll());
     }
 }
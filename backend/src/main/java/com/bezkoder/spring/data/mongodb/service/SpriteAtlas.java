@@ -0,0 +1,62 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Todos los iconos del catálogo en páginas PNG de tamaño acotado, más en qué página y dónde está cada uno.
+ * La clave sale del contenido (catálogo + hash de cada icono): mismo contenido, misma clave,
+ * en cualquier nodo; por eso sus URLs se pueden cachear como inmutables.
+ */
+public final class SpriteAtlas {
+
+    public static final class Region {
+        private final int page;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        Region(int page, int x, int y, int width, int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getPage() { return page; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+
+    private final String key;
+    private final String catalogEtag;
+    private final List<byte[]> pages;
+    private final byte[] manifest;
+    private final Map<String, Region> regions;
+    private final int missing;
+
+    SpriteAtlas(String key, String catalogEtag, List<byte[]> pages, byte[] manifest, Map<String, Region> regions, int missing) {
+        this.key = key;
+        this.catalogEtag = catalogEtag;
+        this.pages = List.copyOf(pages);
+        this.manifest = manifest;
+        this.regions = Collections.unmodifiableMap(regions);
+        this.missing = missing;
+    }
+
+    public String getKey() { return key; }
+    public String getCatalogEtag() { return catalogEtag; }
+    public int getPageCount() { return pages.size(); }
+    // PNG de la página; null si no existe
+    public byte[] getPage(int page) { return page >= 0 && page < pages.size() ? pages.get(page) : null; }
+    // JSON con la URL de cada página y la región de cada item
+    public byte[] getManifest() { return manifest; }
+    public Map<String, Region> getRegions() { return regions; }
+    // iconos que no se pudieron descargar y van como un recuadro del color del item
+    public int getMissing() { return missing; }
+}
@@ -0,0 +1,292 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Genera el sprite atlas de cada versión del catálogo: los iconos (cada item ocupa width x height casillas de
+ * icons.atlas.tile px) en páginas PNG de como mucho icons.atlas.page-size px de lado, y un manifest con la
+ * página y la región de cada uno. Con páginas acotadas, un catálogo más grande no hace crecer la imagen en memoria:
+ * se dibuja una página cada vez.
+ * Se reconstruye en segundo plano cuando cambia el catálogo o faltaba algún icono: mientras tanto se sirve
+ * el último que hay. Sólo la primera petición, cuando aún no hay ninguno, espera a que se construya.
+ */
+@Service
+public class SpriteAtlasService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteAtlasService.class);
+    // se sirven el atlas actual y el anterior (clientes que aún tienen el manifest viejo)
+    private static final int KEEP = 2;
+
+    private final ItemService itemService;
+    private final IconCache icons;
+    private final ObjectMapper mapper;
+    private final int tile;
+    private final int pageSize;
+
+    // con su propio lock: las peticiones no esperan a un rebuild en curso para consultarlo
+    private final Map<String, SpriteAtlas> byKey = new LinkedHashMap<>();
+    private volatile SpriteAtlas current;
+    private volatile boolean building;
+
+    // un solo rebuild en cola a la vez, fuera del hilo de la petición
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final ExecutorService background = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sprite-atlas");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SpriteAtlasService(ItemService itemService, IconCache icons, ObjectMapper mapper,
+                              @Value("${icons.atlas.tile:64}") int tile,
+                              @Value("${icons.atlas.page-size:1024}") int pageSize) {
+        this.itemService = itemService;
+        this.icons = icons;
+        this.mapper = mapper;
+        this.tile = tile;
+        this.pageSize = pageSize;
+    }
+
+    // el último construido; si el catálogo ha cambiado lanza el rebuild y lo devuelve igualmente
+    public SpriteAtlas current() {
+        SpriteAtlas atlas = current;
+        if (atlas == null) return rebuild(itemService.catalog(), false);
+        if (!atlas.getCatalogEtag().equals(itemService.catalog().getEtag())) rebuildInBackground();
+        return atlas;
+    }
+
+    // el actual o uno de los anteriores; vacío si no existe (aún: otro nodo pudo dar antes la clave del catálogo nuevo)
+    public Optional<SpriteAtlas> forKey(String key) {
+        SpriteAtlas atlas = current();
+        if (atlas.getKey().equals(key)) return Optional.of(atlas);
+        synchronized (byKey) {
+            return Optional.ofNullable(byKey.get(key));
+        }
+    }
+
+    // hay un atlas nuevo en camino: una clave desconocida puede ser la suya
+    public boolean isRebuilding() {
+        return building || queued.get();
+    }
+
+    // así ninguna petición espera a las descargas: cambios de catálogo y reintentos de iconos que fallaron
+    @Scheduled(fixedDelayString = "${icons.atlas.refresh-ms:300000}", initialDelayString = "${icons.atlas.initial-delay-ms:5000}")
+    public void refresh() {
+        try {
+            rebuild(itemService.catalog(), true);
+        } catch (RuntimeException e) {
+            log.warn("Sprite atlas refresh failed", e);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        background.shutdownNow();
+    }
+
+    private void rebuildInBackground() {
+        if (!queued.compareAndSet(false, true)) return;
+        try {
+            background.execute(() -> {
+                try {
+                    rebuild(itemService.catalog(), false);
+                } catch (RuntimeException e) {
+                    log.warn("Sprite atlas rebuild failed", e);
+                } finally {
+                    queued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // apagándose
+            queued.set(false);
+        }
+    }
+
+    private synchronized SpriteAtlas rebuild(ItemCatalog catalog, boolean retryMissing) {
+        SpriteAtlas atlas = current;
+        if (atlas != null && atlas.getCatalogEtag().equals(catalog.getEtag())
+                && (!retryMissing || atlas.getMissing() == 0)) {
+            return atlas;
+        }
+        SpriteAtlas built;
+        building = true;
+        try {
+            built = build(catalog);
+        } finally {
+            building = false;
+        }
+        if (atlas != null && atlas.getKey().equals(built.getKey())) return atlas;
+
+        synchronized (byKey) {
+            byKey.put(built.getKey(), built);
+            while (byKey.size() > KEEP) byKey.remove(byKey.keySet().iterator().next());
+        }
+        current = built;
+        log.info("Built sprite atlas {} ({} items, {} missing icons)", built.getKey(), built.getRegions().size(), built.getMissing());
+        return built;
+    }
+
+    SpriteAtlas build(ItemCatalog catalog) {
+        List<Item> items = catalog.getItems();
+        Map<String, SpriteAtlas.Region> regions = layout(items);
+        int pageCount = 1;
+        for (SpriteAtlas.Region r : regions.values()) pageCount = Math.max(pageCount, r.getPage() + 1);
+
+        // la clave depende del catálogo y de qué imagen acabó en cada hueco
+        StringBuilder content = new StringBuilder(catalog.getEtag());
+        int missing = 0;
+        List<byte[]> pages = new ArrayList<>(pageCount);
+        List<Map<String, Object>> pageInfo = new ArrayList<>(pageCount);
+        for (int page = 0; page < pageCount; page++) {
+            int width = 1;
+            int height = 1;
+            for (SpriteAtlas.Region r : regions.values()) {
+                if (r.getPage() != page) continue;
+                width = Math.max(width, r.getX() + r.getWidth());
+                height = Math.max(height, r.getY() + r.getHeight());
+            }
+
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            for (Item item : items) {
+                SpriteAtlas.Region r = regions.get(item.getId());
+                if (r.getPage() != page) continue;
+                Optional<IconCache.Icon> icon = icons.get(item.getEmoji());
+                BufferedImage src = icon.map(SpriteAtlasService::decode).orElse(null);
+                if (src == null) {
+                    missing++;
+                    content.append("|-");
+                    g.setColor(color(item.getColor()));
+                    g.fillRect(r.getX(), r.getY(), r.getWidth(), r.getHeight());
+                    continue;
+                }
+                content.append('|').append(icon.get().getHash());
+                // encaja la imagen en su hueco sin deformarla, centrada
+                double scale = Math.min((double) r.getWidth() / src.getWidth(), (double) r.getHeight() / src.getHeight());
+                int w = Math.max(1, (int) Math.round(src.getWidth() * scale));
+                int h = Math.max(1, (int) Math.round(src.getHeight() * scale));
+                g.drawImage(src, r.getX() + (r.getWidth() - w) / 2, r.getY() + (r.getHeight() - h) / 2, w, h, null);
+            }
+            g.dispose();
+            pages.add(png(image));
+
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("width", width);
+            info.put("height", height);
+            pageInfo.add(info);
+        }
+
+        String key = IconCache.sha256(content.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+        for (int page = 0; page < pageCount; page++) {
+            pageInfo.get(page).put("image", "/api/icons/atlas/" + key + "/" + page + ".png");
+        }
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("key", key);
+        manifest.put("tile", tile);
+        manifest.put("pages", pageInfo);
+        manifest.put("items", regions);
+        try {
+            return new SpriteAtlas(key, catalog.getEtag(), pages, mapper.writeValueAsBytes(manifest), regions, missing);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize sprite atlas manifest", e);
+        }
+    }
+
+    // estanterías: los items van en filas de un ancho parecido al lado de un atlas cuadrado, sin pasar del
+    // tamaño de página; cuando una página se llena se empieza otra. Un item mayor que la página va solo en la suya
+    private Map<String, SpriteAtlas.Region> layout(List<Item> items) {
+        long area = 0;
+        int widest = tile;
+        for (Item item : items) {
+            area += (long) Math.max(1, item.getWidth()) * Math.max(1, item.getHeight());
+            widest = Math.max(widest, Math.max(1, item.getWidth()) * tile);
+        }
+        int rowWidth = Math.min(pageSize, Math.max(widest, (int) Math.ceil(Math.sqrt(area)) * tile));
+
+        Map<String, SpriteAtlas.Region> regions = new LinkedHashMap<>();
+        int page = 0;
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        for (Item item : items) {
+            int w = Math.max(1, item.getWidth()) * tile;
+            int h = Math.max(1, item.getHeight()) * tile;
+            boolean oversized = w > pageSize || h > pageSize;
+            if (x > 0 && x + w > rowWidth) {
+                y += rowHeight;
+                x = 0;
+                rowHeight = 0;
+            }
+            if ((y > 0 && y + h > pageSize) || (oversized && (x > 0 || y > 0))) {
+                page++;
+                x = 0;
+                y = 0;
+                rowHeight = 0;
+            }
+            regions.put(item.getId(), new SpriteAtlas.Region(page, x, y, w, h));
+            x += w;
+            rowHeight = Math.max(rowHeight, h);
+            if (oversized) {
+                page++;
+                x = 0;
+                y = 0;
+                rowHeight = 0;
+            }
+        }
+        return regions;
+    }
+
+    private static BufferedImage decode(IconCache.Icon icon) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(icon.getData()));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Color color(String hex) {
+        try {
+            return hex == null ? Color.GRAY : Color.decode(hex);
+        } catch (NumberFormatException e) {
+            return Color.GRAY;
+        }
+    }
+
+    private static byte[] png(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -2,8 +2,11 @@ package com.bezkoder.spring.data.mongodb;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+// con el almacén embebido: no hace falta un Mongo levantado para arrancar el contexto
+@SpringBootTest(properties = {"storage.embedded.dir=target/test-store", "icons.cache-dir=target/test-store/icons"})
+@ActiveProfiles("embedded")
 class SpringBootDataMongodbApplicationTests {
 
 	@Test
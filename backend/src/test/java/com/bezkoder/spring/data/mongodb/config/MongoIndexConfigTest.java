@@ -0,0 +1,24 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+class MongoIndexConfigTest {
+
+    @Test
+    void theUniqueIndexIsInPlaceBeforeSolutionsAreGenerated() {
+        // como SpringApplication.callRunners: se ordenan las instancias, no los métodos @Bean
+        List<Object> runners = new ArrayList<>(List.of(mock(GenerateSolutionsRunner.class),
+                new MongoIndexConfig().solutionGridIndexes(mock(MongoTemplate.class))));
+        AnnotationAwareOrderComparator.sort(runners);
+
+        assertInstanceOf(MongoIndexConfig.SolutionGridIndexes.class, runners.get(0));
+    }
+}
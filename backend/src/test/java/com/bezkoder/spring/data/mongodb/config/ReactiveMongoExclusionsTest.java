@@ -0,0 +1,33 @@
+package com.bezkoder.spring.data.mongodb.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+class ReactiveMongoExclusionsTest {
+
+    @Test
+    void excludesTheReactiveDriverUnlessThePipelineIsReactive() {
+        StandardEnvironment blocking = environment(Map.of("guess.pipeline", "blocking",
+                ReactiveMongoExclusions.EXCLUDE, "com.example.Other, " + ReactiveMongoExclusions.REACTIVE.get(0)));
+        new ReactiveMongoExclusions().postProcessEnvironment(blocking, null);
+        // las que ya había se mantienen y no se repiten
+        assertEquals("com.example.Other," + String.join(",", ReactiveMongoExclusions.REACTIVE),
+                blocking.getProperty(ReactiveMongoExclusions.EXCLUDE));
+
+        StandardEnvironment reactive = environment(Map.of("guess.pipeline", "reactive"));
+        new ReactiveMongoExclusions().postProcessEnvironment(reactive, null);
+        assertNull(reactive.getProperty(ReactiveMongoExclusions.EXCLUDE));
+    }
+
+    private static StandardEnvironment environment(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return environment;
+    }
+}
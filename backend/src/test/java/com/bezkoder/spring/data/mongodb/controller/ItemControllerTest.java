@@ -0,0 +1,82 @@
+package com.bezkoder.spring.data.mongodb.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.repository.EmbeddedItemStore;
+import com.bezkoder.spring.data.mongodb.service.ItemService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ItemControllerTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private EmbeddedItemStore store;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new EmbeddedItemStore(dir, false, mapper);
+        ItemService service = new ItemService(store, mapper);
+        service.seed(1, List.of(new Item("gpu", "GPU", "#132025", "", 2, 1)));
+        mvc = MockMvcBuilders.standaloneSetup(new ItemController(service)).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void theEtagOnlyChangesWithTheCatalog() throws Exception {
+        String first = etag();
+        assertNotNull(first);
+        assertEquals(first, etag());
+
+        mvc.perform(post("/api/items").contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsBytes(new Item("ledx", "LEDX", "#000000", "", 1, 1))))
+                .andExpect(status().isOk());
+
+        assertNotEquals(first, etag());
+    }
+
+    @Test
+    void aMatchingIfNoneMatchIsNotModifiedWithoutBody() throws Exception {
+        String etag = etag();
+
+        mvc.perform(get("/api/items").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        // otra versión: el catálogo entero
+        mvc.perform(get("/api/items").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private String etag() throws Exception {
+        return mvc.perform(get("/api/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
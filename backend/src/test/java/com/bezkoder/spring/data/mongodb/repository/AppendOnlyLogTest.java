@@ -0,0 +1,76 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AppendOnlyLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysRecordsAfterReopen() throws IOException {
+        Path file = dir.resolve("grids.log");
+        try (AppendOnlyLog log = AppendOnlyLog.open(file, false, r -> {})) {
+            log.append(bytes("2025-01-01"));
+            log.append(bytes("2025-01-02"));
+        }
+
+        assertEquals(List.of("2025-01-01", "2025-01-02"), replay(file));
+    }
+
+    @Test
+    void growsPastInitialMapping() throws IOException {
+        Path file = dir.resolve("big.log");
+        byte[] record = new byte[64 * 1024];
+        try (AppendOnlyLog log = AppendOnlyLog.open(file, false, r -> {})) {
+            for (int i = 0; i < 40; i++) log.append(record);
+        }
+
+        List<byte[]> replayed = new ArrayList<>();
+        AppendOnlyLog.open(file, false, replayed::add).close();
+        assertEquals(40, replayed.size());
+    }
+
+    @Test
+    void stopsAtTornRecordAndOverwritesIt() throws IOException {
+        Path file = dir.resolve("torn.log");
+        int tornAt;
+        try (AppendOnlyLog log = AppendOnlyLog.open(file, false, r -> {})) {
+            log.append(bytes("ok"));
+            tornAt = log.size();
+            log.append(bytes("torn"));
+        }
+        // simula una caída a mitad de escritura: los datos del segundo registro no coinciden con su crc
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("XX")), tornAt + 8);
+        }
+
+        try (AppendOnlyLog log = AppendOnlyLog.open(file, false, r -> {})) {
+            assertEquals(tornAt, log.size());
+            log.append(bytes("after"));
+        }
+        assertEquals(List.of("ok", "after"), replay(file));
+    }
+
+    private static List<String> replay(Path file) throws IOException {
+        List<String> out = new ArrayList<>();
+        AppendOnlyLog.open(file, false, r -> out.add(new String(r, StandardCharsets.UTF_8))).close();
+        return out;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
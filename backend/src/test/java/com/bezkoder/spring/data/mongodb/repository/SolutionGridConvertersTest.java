@@ -0,0 +1,92 @@
+package com.bezkoder.spring.data.mongodb.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+
+class SolutionGridConvertersTest {
+
+    private final MappingMongoConverter converter = converter();
+
+    @Test
+    void writesCompactDocumentAndReadsItBack() {
+        SolutionGrid sg = new SolutionGrid("2025-01-01",
+                Arrays.asList("surv12", null, null, "grizzly", null, "bitcoin", null, null, null),
+                Arrays.asList("surv12", "surv12", "surv12", "grizzly", "grizzly", "bitcoin", "grizzly", "grizzly", null));
+        sg.setId(new ObjectId().toHexString());
+        sg.setSolutionCount(2L);
+
+        Document doc = new Document();
+        converter.write(sg, doc);
+
+        assertEquals(List.of("surv12", "grizzly", "bitcoin"), doc.getList("items", String.class));
+        assertEquals(9, ((Binary) doc.get("cover")).length());
+        assertFalse(doc.containsKey("cells"));
+
+        SolutionGrid read = converter.read(SolutionGrid.class, doc);
+        assertEquals(sg.getId(), read.getId());
+        assertEquals(sg.getMainCells(), read.getMainCells());
+        assertEquals(sg.getCells(), read.getCells());
+        assertEquals(2L, read.getSolutionCount());
+        // las casillas del mismo item comparten el String
+        assertSame(read.getCells().get(0), read.getCells().get(2));
+    }
+
+    @Test
+    void readsLegacyListDocuments() {
+        Document legacy = new Document("_id", new ObjectId())
+                .append("date", "2024-06-01")
+                .append("mainCells", Arrays.asList("gpu", null, null, null, null, null, null, null, null));
+
+        SolutionGrid read = converter.read(SolutionGrid.class, legacy);
+
+        assertEquals(3, read.getWidth());
+        assertEquals("gpu", read.getMainCells().get(0));
+        // sin 'cells': se queda a null para que SolutionGridService lo reconstruya
+        assertNull(read.getCells());
+    }
+
+    @Test
+    void usesTwoBytesPerCellWithLargePalettes() {
+        SolutionGrid sg = new SolutionGrid(20, 20);
+        sg.setDate("2025-01-01");
+        List<String> cells = new ArrayList<>();
+        for (int i = 0; i < 400; i++) cells.add("item" + i);
+        sg.setMainCells(cells);
+        sg.setCells(cells);
+
+        Document doc = new Document();
+        converter.write(sg, doc);
+        SolutionGrid read = converter.read(SolutionGrid.class, doc);
+
+        assertEquals(800, ((Binary) doc.get("main")).length());
+        assertEquals(cells, read.getCells());
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(SolutionGridConverters.all());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
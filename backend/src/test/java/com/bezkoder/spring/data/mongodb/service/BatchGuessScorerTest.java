@@ -0,0 +1,79 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class BatchGuessScorerTest {
+
+    // 2025-03-10 12:00 UTC: en Madrid es día 10
+    private final PuzzleCalendar calendar = new PuzzleCalendar(Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZoneOffset.UTC));
+    private final SolutionGridService solutions = mock(SolutionGridService.class);
+    private final BatchGuessScorer scorer = new BatchGuessScorer(solutions, calendar, new ObjectMapper());
+
+    private final CompiledSolution yesterday = CompiledSolution.compile(new SolutionGrid("2025-03-09",
+            Arrays.asList("bitcoin", null, null, null, null, null, null, null, null),
+            Arrays.asList("bitcoin", null, null, null, null, null, null, null, null)));
+
+    @Test
+    void doesNotRevealDaysThatHaveNotBeenReleased() throws Exception {
+        String out = score("{\"date\":\"2025-03-11\",\"grid\":[]}\n");
+
+        assertEquals("{\"correct\":false,\"correctCells\":[],\"line\":1,\"date\":\"2025-03-11\",\"error\":\"date not released\"}", out.trim());
+        verify(solutions, never()).existingSolutionForDate(any());
+    }
+
+    @Test
+    void aNullLineDoesNotStopTheRest() throws Exception {
+        when(solutions.existingSolutionForDate(LocalDate.parse("2025-03-09"))).thenReturn(Optional.of(yesterday));
+
+        String[] out = score("null\n{\"date\":\"2025-03-09\",\"grid\":[{\"id\":\"bitcoin\",\"isMainCell\":true},null,null,null,null,null,null,null,null]}\n")
+                .trim().split("\n");
+
+        assertEquals(2, out.length);
+        assertEquals("{\"correct\":false,\"correctCells\":[],\"line\":1,\"error\":\"invalid json\"}", out[0]);
+        assertEquals(true, new ObjectMapper().readTree(out[1]).get("correct").asBoolean());
+    }
+
+    @Test
+    void anUndatedLineIsTodayInTheRequestZone() throws Exception {
+        // en Kiritimati ya es día 11
+        ZoneId ahead = ZoneId.of("Pacific/Kiritimati");
+        calendar.zoneFor(ahead.getId());
+        when(solutions.solutionForDate(LocalDate.parse("2025-03-11"))).thenReturn(yesterday);
+
+        String out = score("{\"grid\":[]}\n", ahead);
+
+        assertEquals("2025-03-11", new ObjectMapper().readTree(out).get("date").asText());
+        verify(solutions).solutionForDate(LocalDate.parse("2025-03-11"));
+    }
+
+    private String score(String ndjson) throws Exception {
+        return score(ndjson, PuzzleCalendar.ZONE);
+    }
+
+    private String score(String ndjson, ZoneId zone) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        scorer.score(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out, zone);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
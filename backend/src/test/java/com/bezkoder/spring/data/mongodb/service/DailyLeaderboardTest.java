@@ -0,0 +1,111 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class DailyLeaderboardTest {
+
+    @Test
+    void ordersByAttemptsThenSecondsAndSharesTiedRanks() {
+        DailyLeaderboard board = new DailyLeaderboard("2025-03-10", 10);
+        board.submit(1, 3, 40);
+        board.submit(2, 1, 500);
+        board.submit(3, 3, 10);
+        board.submit(4, 3, 40);
+
+        List<DailyLeaderboard.Entry> top = board.top(10);
+        assertEquals(List.of(2L, 3L, 1L, 4L), top.stream().map(DailyLeaderboard.Entry::getPlayer).collect(Collectors.toList()));
+        assertEquals(List.of(1L, 2L, 3L, 3L), top.stream().map(DailyLeaderboard.Entry::getRank).collect(Collectors.toList()));
+        assertEquals(5, board.rank(3, 41));
+        assertEquals(1, board.rank(1, 0));
+    }
+
+    @Test
+    void sumsTheBoardsOfEveryNode() {
+        LeaderboardService service = new LeaderboardService(null, 10, 2);
+        service.record(LocalDate.parse("2025-03-10"), 1, 3, 40);
+        service.record(LocalDate.parse("2025-03-10"), 2, 2, 90);
+        DailyLeaderboard other = new DailyLeaderboard("2025-03-10", 10);
+        other.submit(3, 1, 500);
+        other.submit(4, 3, 40);
+        service.replaceOthers("2025-03-10", List.of(other));
+
+        MergedLeaderboard merged = service.standings("2025-03-10").orElseThrow();
+        assertEquals(4, merged.solvers());
+        List<DailyLeaderboard.Entry> top = merged.top(3);
+        assertEquals(List.of(3L, 2L, 1L), top.stream().map(DailyLeaderboard.Entry::getPlayer).collect(Collectors.toList()));
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(DailyLeaderboard.Entry::getRank).collect(Collectors.toList()));
+        assertEquals(5, merged.rank(3, 41));
+        // sólo lo de otro nodo también cuenta
+        service.replaceOthers("2025-03-11", List.of(other));
+        assertEquals(2, service.standings("2025-03-11").orElseThrow().solvers());
+    }
+
+    @Test
+    void aPlayerOnTwoNodesIsListedOnceWithTheirBest() {
+        LeaderboardService service = new LeaderboardService(null, 10, 2);
+        service.record(LocalDate.parse("2025-03-10"), 1, 3, 40);
+        service.record(LocalDate.parse("2025-03-10"), 2, 4, 10);
+        DailyLeaderboard other = new DailyLeaderboard("2025-03-10", 10);
+        other.submit(1, 2, 90);
+        other.submit(3, 5, 0);
+        service.replaceOthers("2025-03-10", List.of(other));
+
+        MergedLeaderboard merged = service.standings("2025-03-10").orElseThrow();
+        List<DailyLeaderboard.Entry> top = merged.top(3);
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(DailyLeaderboard.Entry::getPlayer).collect(Collectors.toList()));
+        assertEquals(2, top.get(0).getAttempts());
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(DailyLeaderboard.Entry::getRank).collect(Collectors.toList()));
+        // fuera del top no se sabe quién repite: cuenta una vez por nodo
+        assertEquals(4, merged.solvers());
+    }
+
+    @Test
+    void keepsOnlyTheBestInTheTopButRanksEveryone() {
+        DailyLeaderboard board = new DailyLeaderboard("2025-03-10", 5);
+        Random random = new Random(7);
+        List<int[]> scores = new ArrayList<>();
+        for (long player = 1; player <= 5_000; player++) {
+            int attempts = 1 + random.nextInt(8);
+            int seconds = random.nextInt(DailyLeaderboard.MAX_SECONDS + 1);
+            scores.add(new int[]{attempts, seconds});
+            board.submit(player, attempts, seconds);
+        }
+
+        assertEquals(5, board.top(100).size());
+        assertEquals(5_000, board.solvers());
+        // el puesto sale del histograma: igual que contarlos uno a uno
+        for (int[] probe : scores.subList(0, 50)) {
+            long better = scores.stream()
+                    .filter(s -> s[0] < probe[0] || (s[0] == probe[0] && s[1] < probe[1]))
+                    .count();
+            assertEquals(better + 1, board.rank(probe[0], probe[1]));
+        }
+    }
+
+    @Test
+    void restoresFromItsSnapshot() {
+        DailyLeaderboard board = new DailyLeaderboard("2025-03-10", 3);
+        for (long player = 1; player <= 200; player++) {
+            board.submit(player, 1 + (int) (player % 5), (int) (player * 37 % 3600));
+        }
+        List<DailyLeaderboard.Entry> saved = new ArrayList<>();
+        for (DailyLeaderboard.Entry e : board.top(3)) {
+            saved.add(DailyLeaderboard.entry(e.getPlayer(), e.getAttempts(), e.getSeconds()));
+        }
+
+        DailyLeaderboard restored = new DailyLeaderboard("2025-03-10", 3);
+        restored.restore(board.encodeCounts(), saved);
+
+        assertEquals(board.solvers(), restored.solvers());
+        assertEquals(board.rank(3, 1800), restored.rank(3, 1800));
+        assertEquals(board.top(3).get(0).getPlayer(), restored.top(3).get(0).getPlayer());
+    }
+}
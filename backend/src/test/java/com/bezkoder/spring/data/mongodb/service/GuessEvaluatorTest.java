@@ -0,0 +1,76 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+
+class GuessEvaluatorTest {
+
+    // surv12 (3x1) arriba, grizzly (2x2) abajo a la izquierda, bitcoin abajo a la derecha
+    private final SolutionGrid grid = new SolutionGrid("2025-01-01",
+            Arrays.asList("surv12", null, null, "grizzly", null, "bitcoin", null, null, null),
+            Arrays.asList("surv12", "surv12", "surv12", "grizzly", "grizzly", "bitcoin", "grizzly", "grizzly", null));
+
+    private final CompiledSolution solution = CompiledSolution.compile(grid);
+
+    @Test
+    void allItemsInPlaceIsCorrect() {
+        GuessResponse resp = GuessEvaluator.evaluate(solution, guess("surv12", null, null, "grizzly", null, "bitcoin", null, null, null));
+
+        assertTrue(resp.isCorrect());
+        assertEquals(3, resp.getCorrectCells().size());
+        GuessResponse.CorrectCell grizzly = resp.getCorrectCells().get(1);
+        assertEquals(3, grizzly.getIndex());
+        assertEquals(1, grizzly.getRow());
+        assertEquals(0, grizzly.getCol());
+        assertEquals(List.of(3, 4, 6, 7), grizzly.getCoveredIndices());
+    }
+
+    @Test
+    void partialGuessReportsOnlyMatchingMainCells() {
+        GuessResponse resp = GuessEvaluator.evaluate(solution, guess("surv12", null, null, null, "grizzly", null, null, null, "bitcoin"));
+
+        assertFalse(resp.isCorrect());
+        assertEquals(1, resp.getCorrectCells().size());
+        assertEquals("surv12", resp.getCorrectCells().get(0).getItemId());
+        assertEquals(List.of(0, 1, 2), resp.getCorrectCells().get(0).getCoveredIndices());
+    }
+
+    @Test
+    void cellsNotMarkedAsMainAreIgnored() {
+        GuessRequest request = guess("surv12", null, null, "grizzly", null, "bitcoin", null, null, null);
+        request.getGrid().get(5).setIsMainCell(false);
+
+        GuessResponse resp = GuessEvaluator.evaluate(solution, request);
+
+        assertFalse(resp.isCorrect());
+        assertEquals(2, resp.getCorrectCells().size());
+    }
+
+    private static GuessRequest guess(String... mainIds) {
+        List<GuessRequest.CellDTO> cells = new ArrayList<>();
+        for (String id : mainIds) {
+            if (id == null) {
+                cells.add(null);
+                continue;
+            }
+            GuessRequest.CellDTO cell = new GuessRequest.CellDTO();
+            cell.setId(id);
+            cell.setIsMainCell(true);
+            cells.add(cell);
+        }
+        GuessRequest request = new GuessRequest();
+        request.setGrid(cells);
+        return request;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.spring.data.mongodb.dto.GuessRequest;
+import com.bezkoder.spring.data.mongodb.dto.GuessResponse;
+import com.bezkoder.spring.data.mongodb.model.GuessEvent;
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GuessStatsServiceTest {
+
+    private static final String DAY = "2025-03-10";
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZoneOffset.UTC);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ItemService items = mock(ItemService.class);
+    private final CompiledSolution solution = CompiledSolution.compile(new SolutionGrid(DAY,
+            Arrays.asList("bitcoin", null, null, null, null, null, null, null, null),
+            Arrays.asList("bitcoin", null, null, null, null, null, null, null, null)));
+
+    GuessStatsServiceTest() {
+        when(items.catalog()).thenReturn(ItemCatalog.of(1,
+                List.of(new Item("bitcoin", "0.2 BTC", "#2b202d", "https://wiki/images/Bitcoin.png", 1, 1)), new ObjectMapper()));
+    }
+
+    @Test
+    void aFullBufferDropsAndCountsTheEvent() {
+        GuessEventBuffer buffer = new GuessEventBuffer(2, 1.0, registry);
+        GuessStatsService stats = service(buffer);
+
+        for (int i = 0; i < 3; i++) stats.record(DAY, solution, guess(), miss());
+
+        assertEquals(2, buffer.getAccepted());
+        assertEquals(1, buffer.getDropped());
+        assertEquals(1.0, registry.get("tarkov.guess.events").tag("outcome", "dropped").functionCounter().count());
+        // el agregado en memoria no pierde nada
+        assertEquals(3L, stats.forDate(DAY).orElseThrow().snapshot().get("attempts"));
+
+        // al vaciarlo vuelve a haber sitio
+        List<GuessEvent> drained = new ArrayList<>();
+        assertEquals(2, buffer.drain(drained, 10));
+        stats.record(DAY, solution, guess(), miss());
+        assertEquals(3, buffer.getAccepted());
+        assertEquals("bitcoin", drained.get(0).getPlaced().get(0));
+    }
+
+    @Test
+    void unsampledGuessesStillCountButAreNotQueued() {
+        GuessEventBuffer buffer = new GuessEventBuffer(100, 0.0, registry);
+        GuessStatsService stats = service(buffer);
+
+        for (int i = 0; i < 5; i++) stats.record(DAY, solution, guess(), miss());
+
+        assertEquals(0, buffer.getBuffered());
+        assertEquals(5, buffer.getSampledOut());
+        assertEquals(0, buffer.getDropped());
+        Map<String, Object> snapshot = stats.forDate(DAY).orElseThrow().snapshot();
+        assertEquals(5L, snapshot.get("attempts"));
+        assertEquals(5L, ((Map<?, ?>) snapshot.get("heatmap")).values().stream().mapToLong(c -> ((long[]) c)[0]).sum());
+    }
+
+    @Test
+    void theSampleRateKeepsThatShareOfTheEvents() {
+        GuessEventBuffer buffer = new GuessEventBuffer(100_000, 0.25, registry);
+        GuessStatsService stats = service(buffer);
+
+        for (int i = 0; i < 4000; i++) stats.record(DAY, solution, guess(), miss());
+
+        assertEquals(4000, buffer.getAccepted() + buffer.getSampledOut());
+        assertTrue(buffer.getAccepted() > 800 && buffer.getAccepted() < 1200, "accepted " + buffer.getAccepted());
+    }
+
+    private GuessStatsService service(GuessEventBuffer buffer) {
+        return new GuessStatsService(buffer, items, new PuzzleCalendar(clock), clock, 7);
+    }
+
+    private static GuessRequest guess() {
+        GuessRequest.CellDTO cell = new GuessRequest.CellDTO();
+        cell.setId("bitcoin");
+        cell.setIsMainCell(true);
+        GuessRequest request = new GuessRequest();
+        request.setGrid(Arrays.asList(cell, null, null, null, null, null, null, null, null));
+        return request;
+    }
+
+    private static GuessResponse miss() {
+        return new GuessResponse(false, List.of());
+    }
+}
@@ -0,0 +1,59 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpIconFetcherTest {
+
+    private HttpServer server;
+    private String base;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/small.png", exchange -> send(exchange, 200, new byte[10]));
+        server.createContext("/big.png", exchange -> send(exchange, 200, new byte[100]));
+        server.createContext("/away.png", exchange -> {
+            exchange.getResponseHeaders().add("Location", "http://169.254.169.254/latest/meta-data/");
+            send(exchange, 302, new byte[0]);
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void onlyFetchesFromAllowedHostsUpToTheLimit() throws IOException {
+        HttpIconFetcher fetcher = new HttpIconFetcher(new String[]{"127.0.0.1"}, 64);
+
+        assertArrayEquals(new byte[10], fetcher.fetch(base + "/small.png"));
+        assertThrows(IOException.class, () -> fetcher.fetch(base + "/big.png"));
+        // ni otro host, ni otro esquema, ni una redirección fuera de la lista
+        assertThrows(IOException.class, () -> new HttpIconFetcher(new String[]{"static.wikia.nocookie.net"}, 64)
+                .fetch(base + "/small.png"));
+        assertThrows(IOException.class, () -> fetcher.fetch("file:///etc/passwd"));
+        assertThrows(IOException.class, () -> fetcher.fetch(base + "/away.png"));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+
+class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = index(
+            item("salewa", "Salewa first aid kit", 1, 2, "#20160e"),
+            item("grizzly", "Grizzly medical kit", 2, 2, "#20160e"),
+            item("ibuprofen", "Ibuprofen painkiller", 1, 1, "#20160e"),
+            item("gpu", "Graphics card", 2, 1, "#132025"),
+            item("ai2", "AI-2 medikit", 1, 1, "#20160e"));
+
+    @Test
+    void findsSubstringsAndWordPrefixes() {
+        assertEquals(List.of("ai2", "grizzly", "salewa"), ids(index.search("KIT", null, null, null, null, 10)));
+        assertEquals(List.of("gpu", "grizzly"), ids(index.search("g", null, null, null, null, 10)));
+        // "me" es inicio de palabra en "medical" y "medikit"; "ca" sólo en "card"
+        assertEquals(List.of("ai2", "grizzly"), ids(index.search("me", null, null, null, null, 10)));
+        assertEquals(List.of("gpu"), ids(index.search("ca", null, null, null, null, 10)));
+        assertEquals(List.of(), ids(index.search("xyz", null, null, null, null, 10)));
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        ItemSearchIndex idx = index(item("cms", "Kit quirúrgico CMS", 2, 1, "#20160e"));
+        assertEquals(List.of("cms"), ids(idx.search("QUIRURG", null, null, null, null, 10)));
+    }
+
+    @Test
+    void filtersBySizeAndColor() {
+        assertEquals(List.of("ai2", "ibuprofen"), ids(index.search(null, 1, 1, null, null, 10)));
+        assertEquals(List.of("gpu"), ids(index.search(null, null, null, "#132025", null, 10)));
+        assertEquals(List.of("grizzly"), ids(index.search("kit", 2, null, null, null, 10)));
+    }
+
+    @Test
+    void pagesWithCursorInNameOrder() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            ItemSearchIndex.Page page = index.search(null, null, null, null, cursor, 2);
+            seen.addAll(ids(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("ai2", "gpu", "grizzly", "ibuprofen", "salewa"), seen);
+        assertThrows(IllegalArgumentException.class, () -> index.search(null, null, null, null, "not*base64", 2));
+    }
+
+    @Test
+    void updatesIncrementally() {
+        index.put(item("salewa", "Salewa", 1, 2, "#20160e"));
+        index.delete("grizzly");
+        index.put(item("car", "Car first aid kit", 1, 2, "#20160e"));
+
+        assertEquals(List.of("ai2", "car"), ids(index.search("kit", null, null, null, null, 10)));
+        assertEquals(List.of("salewa"), ids(index.search("sal", null, null, null, null, 10)));
+        ItemSearchIndex.Page all = index.search(null, null, null, null, null, 10);
+        assertEquals(5, all.getItems().size());
+        assertNull(all.getNextCursor());
+    }
+
+    private static ItemSearchIndex index(Item... items) {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.replaceAll(List.of(items));
+        return index;
+    }
+
+    private static List<String> ids(ItemSearchIndex.Page page) {
+        return page.getItems().stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private static Item item(String id, String name, int w, int h, String color) {
+        return new Item(id, name, color, "", w, h);
+    }
+}
@@ -0,0 +1,57 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.repository.EmbeddedItemStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ItemServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void seedsEachCatalogVersionOnce() throws IOException {
+        EmbeddedItemStore store = new EmbeddedItemStore(dir, false, mapper);
+        ItemService service = new ItemService(store, mapper);
+
+        assertTrue(service.seed(1, List.of(item("gpu", "GPU"), item("cms", "CMS"))));
+        assertFalse(service.seed(1, List.of(item("gpu", "GPU"), item("cms", "CMS"))));
+        assertEquals(1, store.seededVersion());
+
+        // la v2 cambia un item y añade otro; lo que no viene en el catálogo se queda
+        service.save(item("custom", "Custom"));
+        assertTrue(service.seed(2, List.of(item("gpu", "Graphics card"), item("ledx", "LEDX"))));
+        assertEquals("Graphics card", service.findById("gpu").orElseThrow().getName());
+        assertEquals(4, service.findAll().size());
+        store.close();
+    }
+
+    @Test
+    void adoptsItemsSeededBeforeVersioning() throws IOException {
+        EmbeddedItemStore store = new EmbeddedItemStore(dir, false, mapper);
+        store.save(item("gpu", "Old GPU"));
+        ItemService service = new ItemService(store, mapper);
+
+        assertFalse(service.seed(1, List.of(item("gpu", "GPU"))));
+        assertEquals("Old GPU", service.findById("gpu").orElseThrow().getName());
+        assertEquals(1, store.seededVersion());
+        store.close();
+    }
+
+    private static Item item(String id, String name) {
+        return new Item(id, name, "#000000", "", 1, 1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+
+class PackingCounterTest {
+
+    @Test
+    void countsDistinctItemsAsDifferentArrangements() {
+        PackingCounter counter = new PackingCounter(2, 2, false);
+
+        assertEquals(24, counter.count(List.of(item("a", 1, 1), item("b", 1, 1), item("c", 1, 1), item("d", 1, 1)), 1000, 10_000).getCount());
+        assertEquals(12, counter.count(List.of(item("a", 1, 1), item("b", 1, 1)), 1000, 10_000).getCount());
+        // dos copias del mismo item son indistinguibles
+        assertEquals(6, counter.count(List.of(item("a", 1, 1), item("a", 1, 1)), 1000, 10_000).getCount());
+    }
+
+    @Test
+    void rotationAddsOrientations() {
+        List<Item> surv = List.of(item("surv12", 3, 1));
+
+        assertEquals(3, new PackingCounter(3, 3, false).count(surv, 1000, 10_000).getCount());
+        assertEquals(6, new PackingCounter(3, 3, true).count(surv, 1000, 10_000).getCount());
+    }
+
+    @Test
+    void countsDominoTilingsOfLargerGrid() {
+        List<Item> dominoes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) dominoes.add(item("d", 2, 1));
+
+        PackingCounter.Result result = new PackingCounter(4, 4, true).count(dominoes, 1000, 100_000);
+
+        assertTrue(result.isComplete());
+        assertEquals(36, result.getCount());
+    }
+
+    @Test
+    void stopsAtLimitAndBudget() {
+        List<Item> items = List.of(item("a", 1, 1), item("b", 1, 1), item("c", 1, 1), item("d", 1, 1));
+
+        assertEquals(10, new PackingCounter(2, 2, false).count(items, 10, 10_000).getCount());
+        assertFalse(new PackingCounter(2, 2, false).count(items, 1000, 1).isComplete());
+    }
+
+    private static Item item(String id, int w, int h) {
+        return new Item(id, id, "#000000", "", w, h);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+
+class PlacementEngineTest {
+
+    @Test
+    void packsFirstFitRowByRowInPouch() {
+        PlacementEngine engine = new PlacementEngine(3, 3, false);
+        List<Item> items = List.of(item("surv12", 3, 1), item("grizzly", 2, 2), item("gpu", 2, 1),
+                item("bitcoin", 1, 1), item("salewa", 1, 2));
+
+        SolutionGrid sg = engine.toSolutionGrid("2025-01-01", engine.pack(items));
+
+        assertEquals(Arrays.asList("surv12", null, null, "grizzly", null, "bitcoin", null, null, null), sg.getMainCells());
+        assertEquals(Arrays.asList("surv12", "surv12", "surv12", "grizzly", "grizzly", "bitcoin", "grizzly", "grizzly", null), sg.getCells());
+    }
+
+    @Test
+    void rotatesItemsWhenAllowed() {
+        PlacementEngine engine = new PlacementEngine(3, 3, true);
+        List<Item> items = List.of(item("a", 2, 3), item("b", 3, 1));
+
+        SolutionGrid sg = engine.toSolutionGrid("2025-01-01", engine.pack(items));
+
+        // b sólo cabe girado en la última columna
+        assertEquals("b", sg.getMainCells().get(2));
+        assertEquals("b", sg.getCells().get(8));
+    }
+
+    @Test
+    void fillsLargeContainerWithRowMasks() {
+        PlacementEngine engine = new PlacementEngine(10, 10, false);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 30; i++) items.add(item("i" + i, 2, 2));
+
+        SolutionGrid sg = engine.toSolutionGrid("2025-01-01", engine.pack(items));
+
+        // caben 25 bloques de 2x2 en 10x10
+        assertEquals(100, sg.getCells().size());
+        assertEquals(25, sg.getMainCells().stream().filter(id -> id != null).count());
+        assertEquals("i24", sg.getCells().get(99));
+        assertNull(sg.getMainCells().get(1));
+    }
+
+    private static Item item(String id, int w, int h) {
+        return new Item(id, id, "#000000", "", w, h);
+    }
+}
@@ -0,0 +1,132 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.spring.data.mongodb.model.PlayerDay;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PlayerSessionsTest {
+
+    // 2025-03-10 10:00 en Madrid
+    private final PuzzleCalendar calendar = new PuzzleCalendar(
+            Clock.fixed(Instant.parse("2025-03-10T09:00:00Z"), PuzzleCalendar.ZONE));
+    private final ZoneId zone = PuzzleCalendar.ZONE;
+    private final LocalDate today = calendar.today();
+    private final long player = PlayerSessions.key("6f1c0c8e-3b7a-4f7e-9d53-0a4b1c2d3e4f");
+    private final LeaderboardService leaderboards = new LeaderboardService(calendar, 10, 2);
+
+    @Test
+    void limitsAttemptsAndKeepsBestResult() {
+        PlayerSessions sessions = sessions(1024, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(sessions.tryAttempt(player, today, zone));
+            sessions.recordResult(player, today, zone, i == 1 ? 4 : 2, false);
+        }
+        assertFalse(sessions.tryAttempt(player, today, zone));
+
+        PlayerDay day = sessions.today(player, zone).orElseThrow();
+        assertEquals(3, day.getAttempts());
+        assertEquals(4, day.getBestCorrect());
+        assertEquals(36000, day.getFirstAttemptSecond());
+    }
+
+    @Test
+    void startsFreshOnTheNextDayWithoutScanning() {
+        PlayerSessions sessions = sessions(1024, 2);
+        sessions.tryAttempt(player, today, zone);
+        sessions.tryAttempt(player, today, zone);
+        assertFalse(sessions.tryAttempt(player, today, zone));
+
+        LocalDate tomorrow = today.plusDays(1);
+        assertTrue(sessions.tryAttempt(player, tomorrow, zone));
+        PlayerDay day = sessions.recordResult(player, tomorrow, zone, 1, true);
+        assertEquals(1, day.getAttempts());
+        assertTrue(day.isSolved());
+    }
+
+    @Test
+    void entersTheLeaderboardOnlyOnTheFirstSolve() {
+        PlayerSessions sessions = sessions(1024, 0);
+        sessions.tryAttempt(player, today, zone);
+        sessions.recordResult(player, today, zone, 2, false);
+        sessions.tryAttempt(player, today, zone);
+        sessions.recordResult(player, today, zone, 5, true);
+        sessions.tryAttempt(player, today, zone);
+        sessions.recordResult(player, today, zone, 5, true);
+
+        DailyLeaderboard board = leaderboards.forDate(today.toString()).orElseThrow();
+        assertEquals(1, board.solvers());
+        assertEquals(2, board.top(10).get(0).getAttempts());
+        assertEquals(DailyLeaderboard.score(2, 0), sessions.todayScore(player, zone));
+        assertEquals(2, sessions.today(player, zone).orElseThrow().getSolveAttempts());
+    }
+
+    @Test
+    void cannotGoBackToAnEarlierDayByChangingZone() {
+        PlayerSessions sessions = sessions(1024, 2);
+        // en una zona que ya va por el día siguiente
+        ZoneId ahead = ZoneId.of("Pacific/Kiritimati");
+        LocalDate tomorrow = today.plusDays(1);
+
+        assertTrue(sessions.tryAttempt(player, today, zone));
+        sessions.recordResult(player, today, zone, 9, true);
+        assertTrue(sessions.tryAttempt(player, tomorrow, ahead));
+        // de vuelta a Madrid: ni intentos nuevos ni una segunda entrada en la clasificación de hoy
+        assertFalse(sessions.tryAttempt(player, today, zone));
+        assertNull(sessions.recordResult(player, today, zone, 9, true));
+
+        assertEquals(1, leaderboards.forDate(today.toString()).orElseThrow().solvers());
+        assertEquals(1, sessions.recordResult(player, tomorrow, ahead, 0, false).getAttempts());
+    }
+
+    @Test
+    void queuesEachChangedPlayerOnceUntilWritten() {
+        PlayerSessions sessions = sessions(1024, 0);
+        long other = PlayerSessions.key("some-other-token");
+        for (int i = 0; i < 5; i++) {
+            sessions.tryAttempt(player, today, zone);
+            sessions.recordResult(player, today, zone, i, false);
+        }
+        sessions.tryAttempt(other, today, zone);
+
+        List<PlayerDay> batch = new ArrayList<>();
+        assertEquals(2, sessions.drainDirty(batch, 100));
+        assertEquals(5, batch.get(0).getAttempts());
+        assertEquals(0, sessions.drainDirty(batch, 100));
+
+        sessions.tryAttempt(player, today, zone);
+        assertEquals(1, sessions.drainDirty(batch, 100));
+    }
+
+    @Test
+    void neverGrowsPastItsCapacity() {
+        PlayerTable table = new PlayerTable(4096);
+        int day = (int) today.toEpochDay();
+        for (long key = 1; key <= 20_000; key++) {
+            table.update(key, day, v -> PlayerTable.pack(day, 1, 0, false, false, 0));
+        }
+
+        assertEquals(4096, table.capacity());
+        assertTrue(table.evictions() >= 20_000 - 4096);
+        // lo último que entra siempre está
+        assertEquals(1, PlayerTable.attempts(table.get(20_000, day)));
+    }
+
+    private PlayerSessions sessions(int capacity, int maxAttempts) {
+        return new PlayerSessions(capacity, maxAttempts, true, calendar, leaderboards, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,60 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class PuzzleCalendarTest {
+
+    // 2025-03-10 23:30 UTC: ya es día 11 en Madrid, todavía día 10 en Bogotá
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-03-10T23:30:00Z"));
+    private final PuzzleCalendar calendar = new PuzzleCalendar(clock, Duration.ofHours(26));
+
+    @Test
+    void eachZoneRollsOverAtItsOwnMidnight() {
+        ZoneId bogota = calendar.zoneFor("America/Bogota");
+
+        assertEquals("2025-03-11", calendar.today(calendar.zoneFor(null)).toString());
+        assertEquals("2025-03-10", calendar.today(bogota).toString());
+        assertEquals(Set.of("2025-03-10", "2025-03-11", "2025-03-12"), calendar.liveDates());
+    }
+
+    @Test
+    void unknownZonesFallBackToMadrid() {
+        assertEquals(PuzzleCalendar.ZONE, calendar.zoneFor("Mars/Olympus_Mons"));
+        assertEquals(PuzzleCalendar.ZONE, calendar.zoneFor("+14:00"));
+        assertEquals(Set.of(PuzzleCalendar.ZONE), calendar.activeZones());
+    }
+
+    @Test
+    void forgetsIdleZonesButNeverTheDefault() {
+        calendar.zoneFor("America/Bogota");
+        clock.advance(Duration.ofHours(27));
+
+        assertEquals(1, calendar.evictStaleZones());
+        assertEquals(Set.of(PuzzleCalendar.ZONE), calendar.activeZones());
+        assertFalse(calendar.isLive("2025-03-11"));
+        assertTrue(calendar.isLive("2025-03-12"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return Clock.fixed(now, zone); }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PuzzleGeneratorTest {
+
+    // 2x1: "long" lo llena solo (una colocación); "a" + "b" admiten dos (ab y ba)
+    private final List<Item> items = List.of(item("long", 2, 1), item("a", 1, 1), item("b", 1, 1));
+
+    @Test
+    void anAmbiguousLayoutIsRejected() {
+        PuzzleGenerator firstOnly = new PuzzleGenerator(2, 1, false, "", 1, 1, 1000, 10_000);
+        PuzzleGenerator unique = new PuzzleGenerator(2, 1, false, "", 16, 1, 1000, 10_000);
+
+        // un día en el que la semilla de la fecha da el grid ambiguo
+        String date = firstAbove(firstOnly, items, 1);
+
+        SolutionGrid grid = unique.generate(date, items);
+        assertEquals(1L, grid.getSolutionCount());
+        assertEquals("long", grid.getMainCells().get(0));
+    }
+
+    @Test
+    void theShippedSettingsRejectAmbiguousGrids() throws IOException {
+        Properties settings = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/application.properties")) {
+            settings.load(in);
+        }
+        int candidates = Integer.parseInt(settings.getProperty("puzzle.generation.candidates"));
+        long maxSolutions = Long.parseLong(settings.getProperty("puzzle.generation.max-solutions"));
+        ObjectMapper mapper = new ObjectMapper();
+        List<Item> catalog;
+        try (InputStream in = getClass().getResourceAsStream("/catalog/items.json")) {
+            catalog = List.of(mapper.treeToValue(mapper.readTree(in).get("items"), Item[].class));
+        }
+        PuzzleGenerator firstOnly = new PuzzleGenerator(3, 3, false, "", 1, Long.MAX_VALUE, 1_000_000, 50_000);
+        PuzzleGenerator shipped = new PuzzleGenerator(3, 3, false, "", candidates, maxSolutions, 1_000_000, 50_000);
+
+        String date = firstAbove(firstOnly, catalog, maxSolutions);
+
+        SolutionGrid grid = shipped.generate(date, catalog);
+        assertTrue(grid.getSolutionCount() <= maxSolutions, "solutions " + grid.getSolutionCount());
+    }
+
+    @Test
+    void withoutALimitTheFirstCandidateIsNotCounted() {
+        PuzzleGenerator unchecked = new PuzzleGenerator(2, 1, false, "", 16, 0, 1000, 10_000);
+        PuzzleGenerator counted = new PuzzleGenerator(2, 1, false, "", 1, Long.MAX_VALUE, 1000, 10_000);
+
+        SolutionGrid grid = unchecked.generate("2025-01-01", items);
+        assertNull(grid.getSolutionCount());
+        // el mismo grid que el primer candidato
+        SolutionGrid first = counted.generate("2025-01-01", items);
+        assertNotNull(first.getSolutionCount());
+        assertEquals(first.getMainCells(), grid.getMainCells());
+    }
+
+    // el primer día desde 2025-01-01 cuyo primer candidato tiene más de max soluciones
+    private static String firstAbove(PuzzleGenerator firstOnly, List<Item> items, long max) {
+        for (LocalDate day = LocalDate.of(2025, 1, 1); day.getYear() == 2025; day = day.plusDays(1)) {
+            Long count = firstOnly.generate(day.toString(), items).getSolutionCount();
+            if (count != null && count > max) return day.toString();
+        }
+        throw new AssertionError("every first candidate was within " + max);
+    }
+
+    private static Item item(String id, int w, int h) {
+        return new Item(id, id, "#000000", "", w, h);
+    }
+}
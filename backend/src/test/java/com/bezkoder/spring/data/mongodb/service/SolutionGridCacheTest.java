@@ -0,0 +1,95 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SolutionGridCacheTest {
+
+    // 2025-03-10 12:00 UTC: en Madrid es día 10, así que hoy y mañana son 10 y 11
+    private final PuzzleCalendar calendar = new PuzzleCalendar(Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZoneOffset.UTC));
+    private final SolutionGridCache cache = new SolutionGridCache();
+
+    @Test
+    void aLiveDayIsReadFromTheStoreOnce() {
+        SolutionGridStore store = mock(SolutionGridStore.class);
+        when(store.findByDate("2025-03-10")).thenReturn(Optional.of(grid("2025-03-10")));
+        SolutionGridService service = new SolutionGridService(store, mock(ItemService.class), cache, calendar,
+                mock(PuzzleGenerator.class), new PuzzleMetrics(new SimpleMeterRegistry(), cache));
+
+        CompiledSolution first = service.solutionForDate(LocalDate.parse("2025-03-10"));
+        CompiledSolution second = service.solutionForDate(LocalDate.parse("2025-03-10"));
+
+        assertSame(first, second);
+        verify(store, times(1)).findByDate("2025-03-10");
+        verify(store, never()).insert(any());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void savingADayEvictsItAndDeletingClearsEverything() {
+        SolutionGridCacheInvalidator invalidator = new SolutionGridCacheInvalidator(cache);
+        cache.put(compiled("2025-03-10"));
+        cache.put(compiled("2025-03-11"));
+
+        invalidator.onAfterSave(new AfterSaveEvent<>(grid("2025-03-11"), new Document(), "solution_grids"));
+        assertEquals(Set.of("2025-03-10"), cache.getDates());
+
+        // el borrado sólo trae el filtro: no se sabe qué día era
+        invalidator.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", "x"), SolutionGrid.class, "solution_grids"));
+        assertNull(cache.peek("2025-03-10"));
+        assertEquals(Set.of(), cache.getDates());
+    }
+
+    @Test
+    void prewarmKeepsOnlyTheLiveDatesAndLoadsTheMissingOnes() {
+        SolutionGridService service = mock(SolutionGridService.class);
+        SolutionGridPrewarmer prewarmer = new SolutionGridPrewarmer(service, cache, calendar);
+        cache.put(compiled("2025-03-09"));
+        cache.put(compiled("2025-03-10"));
+
+        prewarmer.prewarm();
+
+        assertEquals(Set.of("2025-03-10", "2025-03-11"), calendar.liveDates());
+        // ayer ya no lo juega nadie; hoy ya estaba; mañana se carga
+        assertEquals(Set.of("2025-03-10"), cache.getDates());
+        verify(service).findOrCreateForDate(LocalDate.parse("2025-03-11"));
+        verifyNoMoreInteractions(service);
+    }
+
+    private static SolutionGrid grid(String date) {
+        return new SolutionGrid(date,
+                Arrays.asList("bitcoin", null, null, null, null, null, null, null, null),
+                Arrays.asList("bitcoin", null, null, null, null, null, null, null, null));
+    }
+
+    private static CompiledSolution compiled(String date) {
+        return CompiledSolution.compile(grid(date));
+    }
+}
@@ -0,0 +1,145 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.bezkoder.spring.data.mongodb.model.SolutionGrid;
+import com.bezkoder.spring.data.mongodb.repository.SolutionGridStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SolutionGridServiceTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2025-03-10");
+
+    // 2025-03-10 12:00 UTC: en Madrid es día 10, un día vivo
+    private final PuzzleCalendar calendar = new PuzzleCalendar(Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZoneOffset.UTC));
+    private final SolutionGridCache cache = new SolutionGridCache();
+    private final PuzzleGenerator generator = mock(PuzzleGenerator.class);
+    private final ItemService items = mock(ItemService.class);
+
+    @Test
+    void concurrentFirstRequestsGenerateAndInsertOnce() throws Exception {
+        CountingStore store = new CountingStore();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger generated = new AtomicInteger();
+        when(generator.generate(eq(DAY.toString()), anyList())).thenAnswer(call -> {
+            generated.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return grid("ours");
+        });
+        SolutionGridService service = service(store);
+
+        List<CompiledSolution> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread t = new Thread(() -> {
+                CompiledSolution solution = service.solutionForDate(DAY);
+                synchronized (results) {
+                    results.add(solution);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        // el primero está generando y los demás esperan a su resultado
+        awaitAllWaiting(threads);
+        release.countDown();
+        for (Thread t : threads) t.join(5000);
+
+        assertEquals(8, results.size());
+        assertEquals(1, generated.get());
+        assertEquals(1, store.inserts.get());
+        for (CompiledSolution solution : results) assertSame(results.get(0), solution);
+        assertSame(results.get(0), cache.peek(DAY.toString()));
+    }
+
+    @Test
+    void anotherNodesGridWinsTheUniqueIndex() {
+        SolutionGridStore store = mock(SolutionGridStore.class);
+        SolutionGrid theirs = grid("theirs");
+        when(store.findByDate(DAY.toString())).thenReturn(Optional.empty(), Optional.of(theirs));
+        when(store.insert(any())).thenThrow(new DuplicateKeyException("date"));
+        when(generator.generate(eq(DAY.toString()), anyList())).thenReturn(grid("ours"));
+
+        SolutionGrid solution = service(store).findOrCreateForDate(DAY);
+
+        // la nuestra no entró: se usa la que guardó el otro nodo
+        assertEquals(theirs.getMainCells(), solution.getMainCells());
+        verify(store, times(1)).insert(any());
+        verify(store, times(2)).findByDate(DAY.toString());
+    }
+
+    private SolutionGridService service(SolutionGridStore store) {
+        return new SolutionGridService(store, items, cache, calendar, generator, new PuzzleMetrics(new SimpleMeterRegistry(), cache));
+    }
+
+    private static SolutionGrid grid(String item) {
+        return new SolutionGrid(DAY.toString(),
+                Arrays.asList(item, null, null, null, null, null, null, null, null),
+                Arrays.asList(item, null, null, null, null, null, null, null, null));
+    }
+
+    private static void awaitAllWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!threads.stream().allMatch(t -> t.getState() == Thread.State.WAITING || t.getState() == Thread.State.TIMED_WAITING)) {
+            assertTrue(System.currentTimeMillis() < deadline, "threads never blocked");
+            Thread.sleep(10);
+        }
+    }
+
+    // store en memoria que cuenta las inserciones y respeta el índice único sobre 'date'
+    private static final class CountingStore implements SolutionGridStore {
+        final ConcurrentHashMap<String, SolutionGrid> byDate = new ConcurrentHashMap<>();
+        final AtomicInteger inserts = new AtomicInteger();
+
+        @Override
+        public Optional<SolutionGrid> findByDate(String date) {
+            return Optional.ofNullable(byDate.get(date));
+        }
+
+        @Override
+        public SolutionGrid insert(SolutionGrid grid) {
+            inserts.incrementAndGet();
+            if (byDate.putIfAbsent(grid.getDate(), grid) != null) throw new DuplicateKeyException(grid.getDate());
+            return grid;
+        }
+
+        @Override
+        public int insertAll(List<SolutionGrid> grids) {
+            int inserted = 0;
+            for (SolutionGrid grid : grids) if (byDate.putIfAbsent(grid.getDate(), grid) == null) inserted++;
+            return inserted;
+        }
+
+        @Override
+        public Set<String> datesBetween(String from, String to) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
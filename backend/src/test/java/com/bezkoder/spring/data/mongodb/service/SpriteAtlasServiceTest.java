@@ -0,0 +1,166 @@
+package com.bezkoder.spring.data.mongodb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bezkoder.spring.data.mongodb.model.Item;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class SpriteAtlasServiceTest {
+
+    @TempDir
+    Path source;
+
+    @TempDir
+    Path cacheDir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void packsEveryIconIntoOnePageWhenItFits() throws IOException {
+        icon("Surv12.png", 30, 10);
+        icon("Bitcoin.png", 10, 10);
+        SpriteAtlasService service = service(new DirectoryIconFetcher(source));
+
+        SpriteAtlas atlas = service.build(catalog(
+                new Item("surv12", "Surv12", "#20160e", "https://wiki/images/Surv12.png", 3, 1),
+                new Item("bitcoin", "0.2 BTC", "#2b202d", "https://wiki/images/Bitcoin.png", 1, 1)));
+
+        assertEquals(0, atlas.getMissing());
+        SpriteAtlas.Region surv = atlas.getRegions().get("surv12");
+        assertEquals(3 * 8, surv.getWidth());
+        assertEquals(8, surv.getHeight());
+        // filas de ~sqrt(área) casillas: el bitcoin no cabe junto al surv12 y baja a la siguiente
+        SpriteAtlas.Region btc = atlas.getRegions().get("bitcoin");
+        assertEquals(0, btc.getX());
+        assertEquals(8, btc.getY());
+        assertEquals(1, atlas.getPageCount());
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(atlas.getPage(0)));
+        assertEquals(24, image.getWidth());
+        assertEquals(16, image.getHeight());
+        assertEquals("/api/icons/atlas/" + atlas.getKey() + "/0.png",
+                mapper.readTree(atlas.getManifest()).get("pages").get(0).get("image").asText());
+    }
+
+    @Test
+    void splitsABigCatalogIntoPagesOfBoundedSize() throws IOException {
+        icon("a.png", 4, 4);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 9; i++) items.add(new Item("i" + i, "I" + i, "#000000", "https://wiki/images/a.png", 1, 1));
+        items.add(new Item("wide", "Wide", "#000000", "https://wiki/images/a.png", 3, 1));
+        // páginas de 2x2 casillas: el de 3 de ancho no cabe en ninguna y va solo en una a su medida
+        SpriteAtlasService service = new SpriteAtlasService(null, new IconCache(cacheDir, new DirectoryIconFetcher(source)), mapper, 8, 16);
+
+        SpriteAtlas atlas = service.build(ItemCatalog.of(1, items, mapper));
+
+        assertEquals(4, atlas.getPageCount());
+        for (int page = 0; page < atlas.getPageCount(); page++) {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(atlas.getPage(page)));
+            assertTrue(image.getWidth() <= 24 && image.getHeight() <= 24);
+        }
+        assertEquals(2, atlas.getRegions().get("i8").getPage());
+        assertEquals(3, atlas.getRegions().get("wide").getPage());
+        assertEquals("/api/icons/atlas/" + atlas.getKey() + "/3.png",
+                mapper.readTree(atlas.getManifest()).get("pages").get(3).get("image").asText());
+    }
+
+    @Test
+    void missingIconsBecomePlaceholdersWithTheirOwnKey() throws IOException {
+        ItemCatalog catalog = catalog(new Item("gpu", "GPU", "#132025", "https://wiki/images/Graphics_Card_icon.png", 2, 1));
+
+        SpriteAtlas without = service(new DirectoryIconFetcher(source)).build(catalog);
+        icon("Graphics_Card_icon.png", 20, 10);
+        SpriteAtlas with = service(new DirectoryIconFetcher(source)).build(catalog);
+
+        assertEquals(1, without.getMissing());
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(without.getPage(0)));
+        assertEquals(Color.decode("#132025").getRGB(), image.getRGB(1, 1));
+        // la imagen con el recuadro no puede quedarse cacheada como si fuera la buena
+        assertNotEquals(without.getKey(), with.getKey());
+    }
+
+    @Test
+    void servesThePreviousAtlasWhileTheNewOneBuilds() throws Exception {
+        icon("a.png", 4, 4);
+        icon("b.png", 4, 4);
+        CountDownLatch slow = new CountDownLatch(1);
+        DirectoryIconFetcher directory = new DirectoryIconFetcher(source);
+        IconFetcher fetcher = url -> {
+            if (url.endsWith("b.png")) {
+                try {
+                    slow.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            return directory.fetch(url);
+        };
+        ItemService items = mock(ItemService.class);
+        ItemCatalog v1 = catalog(new Item("a", "A", "#000000", "https://wiki/images/a.png", 1, 1));
+        ItemCatalog v2 = ItemCatalog.of(2, List.of(new Item("b", "B", "#000000", "https://wiki/images/b.png", 1, 1)), mapper);
+        SpriteAtlasService service = new SpriteAtlasService(items, new IconCache(cacheDir, fetcher), mapper, 8, 1024);
+
+        when(items.catalog()).thenReturn(v1);
+        SpriteAtlas first = service.current();
+        when(items.catalog()).thenReturn(v2);
+        // la descarga del icono nuevo está parada: la petición no la espera
+        assertSame(first, service.current());
+        assertTrue(service.isRebuilding());
+
+        slow.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.current() == first && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(v2.getEtag(), service.current().getCatalogEtag());
+        assertTrue(service.forKey(first.getKey()).isPresent());
+        service.close();
+    }
+
+    @Test
+    void cacheStoresEachContentOnceAndSurvivesRestart() throws IOException {
+        icon("a.png", 4, 4);
+        Files.copy(source.resolve("a.png"), source.resolve("b.png"));
+        IconCache cache = new IconCache(cacheDir, new DirectoryIconFetcher(source));
+
+        String hash = cache.get("https://x/a.png").orElseThrow().getHash();
+        assertEquals(hash, cache.get("https://y/b.png").orElseThrow().getHash());
+        // el índice + un blob
+        assertEquals(2, Files.list(cacheDir).count());
+
+        IconCache restarted = new IconCache(cacheDir, url -> { throw new IOException("offline"); });
+        assertEquals(hash, restarted.get("https://x/a.png").orElseThrow().getHash());
+    }
+
+    private SpriteAtlasService service(IconFetcher fetcher) throws IOException {
+        return new SpriteAtlasService(null, new IconCache(cacheDir, fetcher), mapper, 8, 1024);
+    }
+
+    private ItemCatalog catalog(Item... items) {
+        return ItemCatalog.of(1, List.of(items), mapper);
+    }
+
+    private void icon(String name, int w, int h) throws IOException {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < w; x++) for (int y = 0; y < h; y++) image.setRGB(x, y, Color.ORANGE.getRGB());
+        ImageIO.write(image, "png", source.resolve(name).toFile());
+    }
+}
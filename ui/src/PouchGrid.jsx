@@ -9,6 +9,41 @@ import {
   getGridPositionFromMouse
 } from './gridUtils';
 
+// token anónimo del jugador (intentos del día en el backend); se genera una vez por navegador
+const getPlayerToken = () => {
+  let token = localStorage.getItem('playerToken');
+  if (!token) {
+    token = crypto.randomUUID();
+    localStorage.setItem('playerToken', token);
+  }
+  return token;
+};
+
+const API_URL = 'https://api.tarkov.joselp.com';
+
+// icono de un item recortado del sprite atlas (/api/icons/atlas), escalado para caber en width x height px
+// sin deformarse; sin atlas o sin región para el item no pinta nada (queda el color del item)
+const Sprite = ({ atlas, item, width, height }) => {
+  const region = atlas?.items?.[item.id];
+  const page = region && atlas.pages?.[region.page];
+  if (!page) return null;
+  const scale = Math.min(width / region.width, height / region.height);
+  return (
+    <div
+      role="img"
+      aria-label={item.name}
+      style={{
+        width: `${region.width * scale}px`,
+        height: `${region.height * scale}px`,
+        backgroundImage: `url(${API_URL}${page.image})`,
+        backgroundPosition: `-${region.x * scale}px -${region.y * scale}px`,
+        backgroundSize: `${page.width * scale}px ${page.height * scale}px`,
+        backgroundRepeat: 'no-repeat'
+      }}
+    />
+  );
+};
+
 const PouchGrid = () => {
   const [craftingGrid, setCraftingGrid] = useState(Array(9).fill(null));
   const [draggedItem, setDraggedItem] = useState(null);
@@ -20,6 +55,7 @@ const PouchGrid = () => {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [guessing, setGuessing] = useState(false); // estado para la petición Guess
+  const [atlas, setAtlas] = useState(null); // manifest del sprite atlas: página y región de cada icono
 
   const gridRef = useRef(null);
   const SLOT_SIZE = 60;
@@ -34,7 +70,7 @@ const PouchGrid = () => {
 
         // Si tu backend corre en Docker Compose y tu frontend está en otro contenedor,
         // asegúrate de usar el nombre del servicio como hostname.
-        const response = await fetch('https://api.tarkov.joselp.com/api/items'); 
+        const response = await fetch(`${API_URL}/api/items`);
         if (!response.ok) throw new Error(`Error ${response.status}`);
 
         const data = await response.json();
@@ -47,7 +83,19 @@ const PouchGrid = () => {
       }
     };
 
+    // los iconos salen de unas pocas imágenes del backend en vez de una petición a la wiki por item
+    const fetchAtlas = async () => {
+      try {
+        const response = await fetch(`${API_URL}/api/icons/atlas`);
+        if (!response.ok) throw new Error(`Error ${response.status}`);
+        setAtlas(await response.json());
+      } catch (err) {
+        console.error('Error fetching icon atlas:', err);
+      }
+    };
+
     fetchItems();
+    fetchAtlas();
   }, []);
 
   // ------------------- HANDLERS (igual que antes) -------------------
@@ -180,10 +228,13 @@ const PouchGrid = () => {
         };
       });
 
-      const response = await fetch('https://api.tarkov.joselp.com/api/guess', {
+      const response = await fetch(`${API_URL}/api/guess`, {
         method: 'POST',
         headers: {
-          'Content-Type': 'application/json'
+          'Content-Type': 'application/json',
+          'X-Player-Token': getPlayerToken(),
+          // el puzzle cambia a medianoche en la zona horaria del jugador
+          'X-Puzzle-Zone': Intl.DateTimeFormat().resolvedOptions().timeZone
         },
         body: JSON.stringify({ grid: payloadGrid })
       });
@@ -304,7 +355,9 @@ const PouchGrid = () => {
 
                 <div className="text-center h-full">
                   <div className="text-2xl w-full p-0 h-full flex flex-col justify-center align-middle items-center ">
-                    <img className='h-full object-cover' src={item.emoji} alt={item.name} />
+                    <Sprite atlas={atlas} item={item}
+                            width={item.width * SLOT_SIZE + (item.width - 1) * SLOT_GAP - 4}
+                            height={item.height * SLOT_SIZE + (item.height - 1) * SLOT_GAP - 4} />
                   </div>
                   <div className="text-xs hidden">{item.width}x{item.height}</div>
                 </div>
@@ -354,7 +407,7 @@ const PouchGrid = () => {
             title={`${item.name} (${item.width}x${item.height})`}
           >
             <div className="text-center text-white select-none pointer-events-none">
-              <div className="text-2xl mb-1 w-12 h-12 "><img className='w-12 h-12 object-contain' src={item.emoji} alt={item.name} /></div>
+              <div className="text-2xl mb-1 w-12 h-12 flex items-center justify-center"><Sprite atlas={atlas} item={item} width={48} height={48} /></div>
               <div className="text-xs font-semibold">{item.name}</div>
               <div className="text-xs opacity-75">{item.width}x{item.height}</div>
             </div>
@@ -389,7 +442,7 @@ const PouchGrid = () => {
       >
         <div className="w-full h-full flex items-center justify-center text-white font-bold">
           <div className="text-center">
-            <div className="text-2xl"><img src={draggedItem.emoji} alt="" /></div>
+            <div className="text-2xl"><Sprite atlas={atlas} item={draggedItem} width={draggedItem.width * 40} height={draggedItem.height * 40} /></div>
             <div className="text-xs ">{draggedItem.width}x{draggedItem.height}</div>
           </div>
         </div>